@@ -0,0 +1,42 @@
+package com.prm.flightbooking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+    
+    // Bounded pool for fanning out independent search legs; CallerRunsPolicy applies backpressure when saturated
+    @Bean
+    public ThreadPoolTaskExecutor flightSearchExecutor(@Value("${flight.search.executor.core-size:8}") int coreSize,
+                                                       @Value("${flight.search.executor.max-size:32}") int maxSize,
+                                                       @Value("${flight.search.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("flight-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+    
+    // Any Executor bean makes Boot skip its applicationTaskExecutor, so MVC async requests get their own pool
+    // (see WebAsyncConfig) rather than falling back to a thread per request
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(@Value("${mvc.async.executor.core-size:8}") int coreSize,
+                                                   @Value("${mvc.async.executor.max-size:32}") int maxSize,
+                                                   @Value("${mvc.async.executor.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.prm.flightbooking.config;
+
+import com.prm.flightbooking.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+    
+    private static final long MAX_NODE_ID = 1023;
+    
+    // Each running instance must be given its own app.node-id (0-1023); two instances sharing one would issue
+    // the same booking numbers, so there is no derived fallback and startup fails without it.
+    // Existing "BK" + epoch millis + 6 hex numbers are 21 characters and the new ones 15, so the two formats
+    // cannot collide and old rows need no migration.
+    @Bean
+    public SnowflakeIdGenerator idGenerator(@Value("${app.node-id:#{null}}") Long nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException("app.node-id must be set to a value unique to this instance (0-" + MAX_NODE_ID + ")");
+        }
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("app.node-id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        return new SnowflakeIdGenerator(nodeId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.prm.flightbooking.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Bookings, booking seats and payments moved from IDENTITY to pooled sequences. On a database that already
+// has rows, a new sequence (or MySQL's one-row table standing in for it) starts at 1 and the first insert
+// would hit an existing key, so at startup each one is moved past MAX(id). It only ever moves forward, so
+// running it on every start, or on a second node, is harmless.
+@Component
+public class IdSequenceInitializer {
+    
+    // Must match allocationSize on the entities' @SequenceGenerator
+    static final int ALLOCATION_SIZE = 50;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    public void seed() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        seed(dialect.getSequenceSupport(), "bookings_seq", "Booking");
+        seed(dialect.getSequenceSupport(), "booking_seats_seq", "BookingSeat");
+        seed(dialect.getSequenceSupport(), "payments_seq", "Payment");
+    }
+    
+    private void seed(SequenceSupport sequences, String sequence, String entity) {
+        Long maxId = maxId(entity);
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out the ALLOCATION_SIZE ids ending at the value it reads
+        long target = maxId + ALLOCATION_SIZE + 1;
+        if (sequences.supportsSequences()) {
+            Long next = jdbcTemplate.queryForObject(sequences.getSequenceNextValString(sequence), Long.class);
+            if (next != null && next < target) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + target);
+            }
+            return;
+        }
+        // Table emulation keeps the next value in a single next_val row
+        int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", target, target);
+        if (updated == 0 && jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequence, Long.class) == 0) {
+            jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) VALUES (?)", target);
+        }
+    }
+    
+    private Long maxId(String entity) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT MAX(e.id) FROM " + entity + " e", Long.class).getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.prm.flightbooking.config;
 
 import com.prm.flightbooking.util.JwtAuthenticationEntryPoint;
 import com.prm.flightbooking.util.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -46,6 +47,8 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.cors().and().csrf().disable()
                 .authorizeHttpRequests(authz -> authz
+                        // Async re-dispatches of an already authorized request (live event streams)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/flights/**").permitAll()
                         .requestMatchers("/api/airports/**").permitAll()
@@ -0,0 +1,178 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.dto.AirportRequest;
+import com.prm.flightbooking.dto.AirportResponse;
+import com.prm.flightbooking.entity.Airport;
+import com.prm.flightbooking.service.AirportGeoIndex;
+import com.prm.flightbooking.service.AirportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/airports")
+@CrossOrigin(origins = "*")
+public class AirportController {
+    
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_NEARBY = 100;
+    private static final double MAX_RADIUS_KM = 2000;
+    
+    @Autowired
+    private AirportService airportService;
+    
+    @GetMapping
+    public ResponseEntity<List<AirportResponse>> getAllAirports() {
+        List<AirportResponse> airports = airportService.findAll().stream()
+                .map(this::convertToAirportResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(airports);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<AirportResponse> getAirportById(@PathVariable Long id) {
+        return airportService.findById(id)
+                .map(airport -> ResponseEntity.ok(convertToAirportResponse(airport)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<AirportResponse>> searchAirports(@RequestParam("q") String query,
+                                                                @RequestParam(defaultValue = "10") int limit) {
+        List<AirportResponse> airports = airportService.searchAirports(query, Math.min(limit, MAX_SUGGESTIONS)).stream()
+                .map(this::convertToAirportResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(airports);
+    }
+    
+    @GetMapping("/nearby")
+    public ResponseEntity<List<AirportResponse>> getNearbyAirports(@RequestParam double lat,
+                                                                   @RequestParam double lon,
+                                                                   @RequestParam(defaultValue = "100") double radiusKm,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        if (Math.abs(lat) > 90 || Math.abs(lon) > 180 || radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<AirportGeoIndex.Nearby> nearby = airportService.findNearby(lat, lon, radiusKm, Math.min(limit, MAX_NEARBY));
+        Map<Long, Airport> byId = airportService.findAllById(nearby.stream().map(AirportGeoIndex.Nearby::airportId).toList())
+                .stream()
+                .collect(Collectors.toMap(Airport::getId, airport -> airport));
+        List<AirportResponse> airports = new ArrayList<>();
+        for (AirportGeoIndex.Nearby match : nearby) {
+            Airport airport = byId.get(match.airportId());
+            if (airport != null) {
+                AirportResponse response = convertToAirportResponse(airport);
+                response.setDistanceKm(Math.round(match.distanceKm() * 10) / 10.0);
+                airports.add(response);
+            }
+        }
+        return ResponseEntity.ok(airports);
+    }
+    
+    @GetMapping("/cities")
+    public ResponseEntity<List<String>> getAllCities() {
+        return ResponseEntity.ok(airportService.findAllCities());
+    }
+    
+    @GetMapping("/countries")
+    public ResponseEntity<List<String>> getAllCountries() {
+        return ResponseEntity.ok(airportService.findAllCountries());
+    }
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createAirport(@RequestBody AirportRequest airportRequest) {
+        String invalid = validate(airportRequest);
+        if (invalid == null && airportService.existsByCode(airportRequest.getCode())) {
+            invalid = "Airport code is already in use";
+        }
+        if (invalid != null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", invalid);
+            return ResponseEntity.badRequest().body(error);
+        }
+        Airport airport = new Airport();
+        applyRequest(airport, airportRequest);
+        return ResponseEntity.ok(convertToAirportResponse(airportService.createAirport(airport)));
+    }
+    
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateAirport(@PathVariable Long id, @RequestBody AirportRequest airportRequest) {
+        Airport airport = airportService.findById(id).orElse(null);
+        if (airport == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String invalid = validate(airportRequest);
+        if (invalid == null && !airportRequest.getCode().equals(airport.getCode())
+                && airportService.existsByCode(airportRequest.getCode())) {
+            invalid = "Airport code is already in use";
+        }
+        if (invalid != null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", invalid);
+            return ResponseEntity.badRequest().body(error);
+        }
+        applyRequest(airport, airportRequest);
+        return ResponseEntity.ok(convertToAirportResponse(airportService.updateAirport(airport)));
+    }
+    
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteAirport(@PathVariable Long id) {
+        if (airportService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        airportService.deleteAirport(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    // Mirrors the constraints on AirportRequest; returns the first problem or null
+    private String validate(AirportRequest request) {
+        if (request.getName() == null || request.getName().isBlank() || request.getName().length() > 100) {
+            return "Airport name is required and must be at most 100 characters";
+        }
+        if (request.getCode() == null || request.getCode().isBlank() || request.getCode().length() > 10) {
+            return "Airport code is required and must be at most 10 characters";
+        }
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            return "Latitude and longitude must be given together";
+        }
+        // Written as negated ranges so NaN is rejected too
+        if (request.getLatitude() != null && !(request.getLatitude() >= -90 && request.getLatitude() <= 90
+                && request.getLongitude() >= -180 && request.getLongitude() <= 180)) {
+            return "Coordinates are out of range";
+        }
+        return null;
+    }
+    
+    private void applyRequest(Airport airport, AirportRequest request) {
+        airport.setName(request.getName());
+        airport.setCode(request.getCode());
+        airport.setCity(request.getCity());
+        airport.setCountry(request.getCountry());
+        airport.setAddress(request.getAddress());
+        airport.setLatitude(request.getLatitude());
+        airport.setLongitude(request.getLongitude());
+    }
+    
+    private AirportResponse convertToAirportResponse(Airport airport) {
+        AirportResponse response = new AirportResponse();
+        response.setId(airport.getId());
+        response.setCode(airport.getCode());
+        response.setName(airport.getName());
+        response.setCity(airport.getCity());
+        response.setCountry(airport.getCountry());
+        response.setAddress(airport.getAddress());
+        response.setLatitude(airport.getLatitude());
+        response.setLongitude(airport.getLongitude());
+        return response;
+    }
+}
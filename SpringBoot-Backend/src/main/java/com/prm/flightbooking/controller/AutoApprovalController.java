@@ -0,0 +1,38 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.service.AutoApprovalService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/AutoApproval")
+@CrossOrigin(origins = "*")
+public class AutoApprovalController {
+    
+    @Autowired
+    private AutoApprovalService autoApprovalService;
+    
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(autoApprovalService.getStats());
+    }
+    
+    @PostMapping("/process")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> process() {
+        Map<String, Object> result = autoApprovalService.process();
+        if (result == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Auto-approval is already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,90 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.dto.BookingRequest;
+import com.prm.flightbooking.dto.BookingResponse;
+import com.prm.flightbooking.entity.Booking;
+import com.prm.flightbooking.entity.BookingSeat;
+import com.prm.flightbooking.entity.User;
+import com.prm.flightbooking.service.BookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/bookings")
+@CrossOrigin(origins = "*")
+public class BookingController {
+    
+    @Autowired
+    private BookingService bookingService;
+    
+    @PostMapping
+    public ResponseEntity<?> createBooking(@RequestBody BookingRequest request, @AuthenticationPrincipal User user) {
+        try {
+            Booking booking = bookingService.placeBooking(user.getId(), request);
+            return ResponseEntity.ok(convertToBookingResponse(booking));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/my")
+    public ResponseEntity<List<BookingResponse>> getMyBookings(@AuthenticationPrincipal User user) {
+        List<BookingResponse> bookings = bookingService.findByUserId(user.getId())
+                .stream()
+                .map(this::convertToBookingResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(bookings);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<BookingResponse> getBookingById(@PathVariable Long id, @AuthenticationPrincipal User user) {
+        return bookingService.findById(id)
+                .filter(booking -> user.getRole() == User.Role.ADMIN
+                        || (booking.getUser() != null && Objects.equals(booking.getUser().getId(), user.getId())))
+                .map(booking -> ResponseEntity.ok(convertToBookingResponse(booking)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/pipeline/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        return ResponseEntity.ok(bookingService.getPipelineStats());
+    }
+    
+    @GetMapping("/expiry/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getExpiryStats() {
+        return ResponseEntity.ok(bookingService.getExpiryStats());
+    }
+    
+    private BookingResponse convertToBookingResponse(Booking booking) {
+        List<Long> seatIds = booking.getBookingSeats() == null ? List.of() : booking.getBookingSeats()
+                .stream()
+                .map(BookingSeat::getSeat)
+                .filter(Objects::nonNull)
+                .map(seat -> seat.getId())
+                .collect(Collectors.toList());
+        return new BookingResponse(
+                booking.getId(),
+                booking.getBookingNumber(),
+                booking.getFlight() != null ? booking.getFlight().getId() : null,
+                booking.getNumberOfPassengers(),
+                booking.getTotalPrice(),
+                booking.getStatus() != null ? booking.getStatus().name() : null,
+                booking.getPaymentStatus() != null ? booking.getPaymentStatus().name() : null,
+                booking.getBookingDate(),
+                seatIds
+        );
+    }
+}
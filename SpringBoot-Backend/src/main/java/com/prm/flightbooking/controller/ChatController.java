@@ -0,0 +1,213 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.dto.ChatMessageRequest;
+import com.prm.flightbooking.dto.ChatMessageResponse;
+import com.prm.flightbooking.entity.ChatConversation;
+import com.prm.flightbooking.entity.ChatMessage;
+import com.prm.flightbooking.entity.ChatMessage.SenderType;
+import com.prm.flightbooking.entity.User;
+import com.prm.flightbooking.service.AdminEventBroadcaster;
+import com.prm.flightbooking.service.ChatService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/Chat")
+@CrossOrigin(origins = "*")
+public class ChatController {
+    
+    @Autowired
+    private ChatService chatService;
+    
+    @Autowired
+    private AdminEventBroadcaster adminEventBroadcaster;
+    
+    // Users can only write as themselves; admins write as ADMIN unless they ask for SYSTEM
+    @PostMapping("/send")
+    public ResponseEntity<?> sendMessage(@RequestBody ChatMessageRequest request, @AuthenticationPrincipal User user) {
+        if (!canAccess(user, request.getUserId())) {
+            return forbidden();
+        }
+        SenderType senderType = isAdmin(user)
+                ? (request.getSenderType() == SenderType.SYSTEM ? SenderType.SYSTEM : SenderType.ADMIN)
+                : SenderType.USER;
+        return send(request.getUserId(), senderType, user, request.getContent());
+    }
+    
+    @PostMapping("/admin/reply")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> adminReply(@RequestBody ChatMessageRequest request, @AuthenticationPrincipal User user) {
+        return send(request.getUserId(), SenderType.ADMIN, user, request.getContent());
+    }
+    
+    // With userId: that conversation, optionally only after sinceSeq. Without (admins): the newest message of each conversation.
+    @GetMapping("/conversation")
+    public ResponseEntity<?> getConversation(@RequestParam(required = false) Long userId,
+                                             @RequestParam(required = false) Long sinceSeq,
+                                             @RequestParam(defaultValue = "100") int limit,
+                                             @AuthenticationPrincipal User user) {
+        if (userId == null) {
+            if (!isAdmin(user)) {
+                return forbidden();
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("messages", convert(chatService.findLatestPerConversation(limit)));
+            return ResponseEntity.ok(response);
+        }
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("userId", userId);
+        Optional<ChatConversation> conversation = chatService.findConversation(userId);
+        if (conversation.isEmpty()) {
+            response.put("lastSeq", 0);
+            response.put("unreadCount", 0);
+            response.put("messages", List.of());
+            return ResponseEntity.ok(response);
+        }
+        ChatConversation current = conversation.get();
+        long readSeq = isAdmin(user) ? current.getAdminReadSeq() : current.getUserReadSeq();
+        response.put("lastSeq", current.getLastSeq());
+        response.put("userReadSeq", current.getUserReadSeq());
+        response.put("adminReadSeq", current.getAdminReadSeq());
+        response.put("unreadCount", current.getLastSeq() - readSeq);
+        response.put("messages", convert(chatService.findMessages(current, sinceSeq, limit)));
+        return ResponseEntity.ok(response);
+    }
+    
+    // Marks this message and everything before it as read for the caller's side
+    @PutMapping("/{messageId}/read")
+    public ResponseEntity<?> markAsRead(@PathVariable Long messageId, @AuthenticationPrincipal User user) {
+        Optional<ChatMessage> message = chatService.findMessage(messageId);
+        if (message.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Message not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        Long userId = message.get().getConversation().getUser().getId();
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", chatService.markReadUpTo(userId, message.get().getSeq(), isAdmin(user)));
+        response.put("message", "Messages marked as read");
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/mark-read/{userId}")
+    public ResponseEntity<?> markAllAsRead(@PathVariable Long userId, @AuthenticationPrincipal User user) {
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", chatService.markAllRead(userId, isAdmin(user)));
+        response.put("message", "Messages marked as read");
+        return ResponseEntity.ok(response);
+    }
+    
+    // The user's own unread count
+    @GetMapping("/unread")
+    public ResponseEntity<?> getUnreadCount(@RequestParam Long userId, @AuthenticationPrincipal User user) {
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
+        response.put("unreadCount", chatService.getUnreadCount(userId));
+        return ResponseEntity.ok(response);
+    }
+    
+    // Messages past the admins' read cursor, across all conversations
+    @GetMapping("/admin/unread")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ChatMessageResponse>> getAdminUnread(@RequestParam(defaultValue = "200") int limit) {
+        return ResponseEntity.ok(convert(chatService.findUnreadByAdmin(limit)));
+    }
+    
+    @GetMapping("/admin/unread-counts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAdminUnreadCounts() {
+        return ResponseEntity.ok(chatService.getAdminUnreadCounts());
+    }
+    
+    // Push channel: users get their own conversation's deltas, admins get every delta
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(@AuthenticationPrincipal User user) {
+        if (user == null) {
+            return forbidden();
+        }
+        try {
+            return ResponseEntity.ok(isAdmin(user) ? adminEventBroadcaster.subscribe() : adminEventBroadcaster.subscribeUser(user.getId()));
+        } catch (IllegalStateException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(error);
+        }
+    }
+    
+    private ResponseEntity<?> send(Long userId, SenderType senderType, User sender, String content) {
+        try {
+            ChatMessage message = chatService.send(userId, senderType, sender != null ? sender.getId() : null, content);
+            return ResponseEntity.ok(convertToChatMessageResponse(message));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    private boolean isAdmin(User user) {
+        return user != null && user.getRole() == User.Role.ADMIN;
+    }
+    
+    private boolean canAccess(User user, Long userId) {
+        return user != null && userId != null && (isAdmin(user) || user.getId().equals(userId));
+    }
+    
+    private ResponseEntity<Map<String, String>> forbidden() {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Access denied");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+    
+    private String displayName(User user) {
+        String name = ((user.getFirstName() != null ? user.getFirstName() : "") + " "
+                + (user.getLastName() != null ? user.getLastName() : "")).trim();
+        return name.isEmpty() ? user.getUsername() : name;
+    }
+    
+    private List<ChatMessageResponse> convert(List<ChatMessage> messages) {
+        return messages.stream().map(this::convertToChatMessageResponse).toList();
+    }
+    
+    private ChatMessageResponse convertToChatMessageResponse(ChatMessage message) {
+        ChatConversation conversation = message.getConversation();
+        User owner = conversation.getUser();
+        ChatMessageResponse response = new ChatMessageResponse();
+        response.setMessageId(message.getId());
+        response.setUserId(owner.getId());
+        response.setUserName(displayName(owner));
+        response.setUserEmail(owner.getEmail());
+        response.setSeq(message.getSeq());
+        response.setSenderType(message.getSenderType());
+        response.setSenderId(message.getSenderId());
+        response.setContent(message.getContent());
+        response.setCreatedAt(message.getCreatedAt());
+        // Read by the other side once its cursor has reached the message
+        response.setIsRead(message.getSeq() <= (message.getSenderType() == SenderType.USER
+                ? conversation.getAdminReadSeq() : conversation.getUserReadSeq()));
+        return response;
+    }
+}
@@ -0,0 +1,93 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.service.DashboardCounters;
+import com.prm.flightbooking.service.PopularityTracker;
+import com.prm.flightbooking.service.RevenueRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/Dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    
+    @Autowired
+    private PopularityTracker popularityTracker;
+    
+    private static final int MAX_TOP_COUNT = 100;
+    
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(dashboardCounters.getStats());
+    }
+    
+    @GetMapping("/revenue/{year}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRevenueByYear(@PathVariable int year) {
+        if (year < 1900 || year > 9999) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Invalid year");
+            return ResponseEntity.badRequest().body(error);
+        }
+        return ResponseEntity.ok(revenueRollupService.getYear(year));
+    }
+    
+    // window is 7d, 30d or all; exact=true groups the bookings table instead of reading the sketch
+    @GetMapping("/popular-routes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPopularRoutes(@RequestParam(defaultValue = "10") int topCount,
+                                              @RequestParam(defaultValue = "all") String window,
+                                              @RequestParam(defaultValue = "false") boolean exact) {
+        try {
+            PopularityTracker.Window parsed = PopularityTracker.Window.parse(window);
+            int count = Math.max(1, Math.min(topCount, MAX_TOP_COUNT));
+            return ResponseEntity.ok(exact
+                    ? popularityTracker.getPopularRoutesExact(parsed, count)
+                    : popularityTracker.getPopularRoutes(parsed, count));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/popular-airlines")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPopularAirlines(@RequestParam(defaultValue = "10") int topCount,
+                                                @RequestParam(defaultValue = "all") String window,
+                                                @RequestParam(defaultValue = "false") boolean exact) {
+        try {
+            PopularityTracker.Window parsed = PopularityTracker.Window.parse(window);
+            int count = Math.max(1, Math.min(topCount, MAX_TOP_COUNT));
+            return ResponseEntity.ok(exact
+                    ? popularityTracker.getPopularAirlinesExact(parsed, count)
+                    : popularityTracker.getPopularAirlines(parsed, count));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    // Recomputes every rollup bucket from the payments table
+    @PostMapping("/revenue/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildRevenue() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("buckets", revenueRollupService.rebuild());
+        response.put("message", "Revenue rollups rebuilt successfully");
+        return ResponseEntity.ok(response);
+    }
+}
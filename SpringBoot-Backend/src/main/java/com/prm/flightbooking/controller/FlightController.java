@@ -1,18 +1,34 @@
 package com.prm.flightbooking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prm.flightbooking.dto.FareCalendarDay;
+import com.prm.flightbooking.dto.FlightPageResponse;
 import com.prm.flightbooking.dto.FlightResponse;
 import com.prm.flightbooking.dto.FlightSearchRequest;
+import com.prm.flightbooking.dto.ItineraryResponse;
+import com.prm.flightbooking.dto.NearbyFlightSearchRequest;
+import com.prm.flightbooking.dto.RoundTripResponse;
 import com.prm.flightbooking.entity.Flight;
+import com.prm.flightbooking.entity.Seat.SeatClass;
+import com.prm.flightbooking.service.ConnectionSearchEngine;
 import com.prm.flightbooking.service.FlightService;
+import com.prm.flightbooking.service.FlightStatusScheduler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/flights")
@@ -22,13 +38,80 @@ public class FlightController {
     @Autowired
     private FlightService flightService;
     
+    @Autowired
+    private FlightStatusScheduler flightStatusScheduler;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FLUSH_INTERVAL = 200;
+    private static final int MAX_ITINERARIES = 50;
+    private static final int MAX_CALENDAR_DAYS = 180;
+    private static final double MAX_NEARBY_RADIUS_KM = 500;
+    
     @GetMapping
     public ResponseEntity<List<FlightResponse>> getAllFlights() {
-        List<Flight> flights = flightService.findAll();
-        List<FlightResponse> flightResponses = flights.stream()
-                .map(this::convertToFlightResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(flightResponses);
+        return ResponseEntity.ok(flightService.findAllFlightResponses());
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<FlightPageResponse> getFlightPage(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDateTime afterDepartureTime = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+                afterDepartureTime = LocalDateTime.parse(parts[0]);
+                afterId = Long.parseLong(parts[1]);
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        
+        List<FlightResponse> flights = flightService.findFlightResponsePage(afterDepartureTime, afterId, limit);
+        boolean hasMore = flights.size() > limit;
+        if (hasMore) {
+            flights = flights.subList(0, limit);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            FlightResponse last = flights.get(flights.size() - 1);
+            String token = last.getDepartureTime() + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        }
+        return ResponseEntity.ok(new FlightPageResponse(flights, nextCursor, hasMore));
+    }
+    
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamFlights() {
+        StreamingResponseBody body = out -> {
+            int[] written = {0};
+            try {
+                flightService.streamFlightResponses(flight -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(flight));
+                        out.write('\n');
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 1) {
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
     
     @GetMapping("/{id}")
@@ -44,15 +127,68 @@ public class FlightController {
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
             LocalDateTime departureDate = LocalDateTime.parse(searchRequest.getDepartureDate(), formatter);
             
-            List<Flight> flights = flightService.searchFlights(
+            List<FlightResponse> flightResponses = flightService.searchFlightResponses(
                     searchRequest.getDepartureAirportId(),
                     searchRequest.getArrivalAirportId(),
-                    departureDate
+                    departureDate,
+                    searchRequest.getPassengers(),
+                    parseSeatClass(searchRequest.getSeatClass())
             );
             
-            List<FlightResponse> flightResponses = flights.stream()
-                    .map(this::convertToFlightResponse)
-                    .collect(Collectors.toList());
+            return ResponseEntity.ok(flightResponses);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/fare-calendar")
+    public ResponseEntity<List<FareCalendarDay>> getFareCalendar(@RequestParam Long departureAirportId,
+                                                                 @RequestParam Long arrivalAirportId,
+                                                                 @RequestParam(required = false) String from,
+                                                                 @RequestParam(defaultValue = "90") int days) {
+        try {
+            LocalDate start = from != null ? LocalDate.parse(from) : LocalDate.now();
+            if (days < 1 || days > MAX_CALENDAR_DAYS) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(flightService.getFareCalendar(departureAirportId, arrivalAirportId, start, days));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/search/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getSearchCacheStats() {
+        return ResponseEntity.ok(flightService.getSearchCacheStats());
+    }
+    
+    @GetMapping("/status-transitions/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStatusTransitionStats() {
+        return ResponseEntity.ok(flightStatusScheduler.getStats());
+    }
+    
+    @PostMapping("/search/nearby")
+    public ResponseEntity<List<FlightResponse>> searchFlightsFromNearby(@RequestBody NearbyFlightSearchRequest searchRequest) {
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+            LocalDateTime departureDate = LocalDateTime.parse(searchRequest.getDepartureDate(), formatter);
+            double radiusKm = searchRequest.getRadiusKm() != null ? searchRequest.getRadiusKm() : 100;
+            if (searchRequest.getLatitude() == null || searchRequest.getLongitude() == null
+                    || searchRequest.getArrivalAirportId() == null || radiusKm <= 0 || radiusKm > MAX_NEARBY_RADIUS_KM) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            List<FlightResponse> flightResponses = flightService.searchFlightsFromNearby(
+                    searchRequest.getLatitude(),
+                    searchRequest.getLongitude(),
+                    radiusKm,
+                    searchRequest.getArrivalAirportId(),
+                    departureDate,
+                    searchRequest.getPassengers(),
+                    parseSeatClass(searchRequest.getSeatClass())
+            );
             
             return ResponseEntity.ok(flightResponses);
         } catch (Exception e) {
@@ -60,13 +196,70 @@ public class FlightController {
         }
     }
     
+    @PostMapping("/search/round-trip")
+    public ResponseEntity<RoundTripResponse> searchRoundTrip(@RequestBody FlightSearchRequest searchRequest) {
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+            LocalDateTime departureDate = LocalDateTime.parse(searchRequest.getDepartureDate(), formatter);
+            LocalDateTime returnDate = LocalDateTime.parse(searchRequest.getReturnDate(), formatter);
+            if (returnDate.isBefore(departureDate)) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            RoundTripResponse response = flightService.searchRoundTrip(
+                    searchRequest.getDepartureAirportId(),
+                    searchRequest.getArrivalAirportId(),
+                    departureDate,
+                    returnDate,
+                    searchRequest.getPassengers(),
+                    parseSeatClass(searchRequest.getSeatClass())
+            );
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/search/connections")
+    public ResponseEntity<List<ItineraryResponse>> searchConnections(@RequestBody FlightSearchRequest searchRequest) {
+        if (searchRequest.getMinConnectionMinutes() != null && searchRequest.getMinConnectionMinutes() < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+            LocalDateTime departureDate = LocalDateTime.parse(searchRequest.getDepartureDate(), formatter);
+            
+            ConnectionSearchEngine.SortOrder sortOrder = searchRequest.getSortBy() != null
+                    ? ConnectionSearchEngine.SortOrder.valueOf(searchRequest.getSortBy().toUpperCase())
+                    : ConnectionSearchEngine.SortOrder.DURATION;
+            int maxStops = searchRequest.getMaxStops() != null ? searchRequest.getMaxStops() : 2;
+            int passengers = searchRequest.getPassengers() != null ? searchRequest.getPassengers() : 1;
+            
+            List<ItineraryResponse> itineraries = flightService.searchItineraries(
+                    searchRequest.getDepartureAirportId(),
+                    searchRequest.getArrivalAirportId(),
+                    departureDate,
+                    maxStops,
+                    searchRequest.getMinConnectionMinutes(),
+                    sortOrder,
+                    passengers,
+                    MAX_ITINERARIES
+            );
+            
+            return ResponseEntity.ok(itineraries);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/available")
     public ResponseEntity<List<FlightResponse>> getAvailableFlights() {
-        List<Flight> flights = flightService.findAvailableFlights();
-        List<FlightResponse> flightResponses = flights.stream()
-                .map(this::convertToFlightResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(flightResponses);
+        return ResponseEntity.ok(flightService.findAvailableFlightResponses());
+    }
+    
+    private SeatClass parseSeatClass(String seatClass) {
+        return seatClass == null || seatClass.isBlank() ? null : SeatClass.valueOf(seatClass.trim().toUpperCase());
     }
     
     private FlightResponse convertToFlightResponse(Flight flight) {
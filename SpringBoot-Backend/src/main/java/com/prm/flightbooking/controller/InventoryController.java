@@ -0,0 +1,37 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.service.InventoryReconciler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/inventory")
+@CrossOrigin(origins = "*")
+public class InventoryController {
+    
+    @Autowired
+    private InventoryReconciler inventoryReconciler;
+    
+    @GetMapping("/reconciler")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getReconcilerMetrics() {
+        return ResponseEntity.ok(inventoryReconciler.getMetrics());
+    }
+    
+    @PostMapping("/reconciler/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> runReconciler() {
+        if (!inventoryReconciler.run()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Reconciliation is already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        return ResponseEntity.ok(inventoryReconciler.getMetrics());
+    }
+}
@@ -0,0 +1,120 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.dto.NotificationRequest;
+import com.prm.flightbooking.dto.NotificationResponse;
+import com.prm.flightbooking.dto.UnreadCountsRequest;
+import com.prm.flightbooking.entity.Notification;
+import com.prm.flightbooking.entity.User;
+import com.prm.flightbooking.service.NotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/Notification")
+@CrossOrigin(origins = "*")
+public class NotificationController {
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createNotification(@RequestBody NotificationRequest request) {
+        try {
+            Notification notification = notificationService.createNotification(request.getUserId(), request.getTitle(),
+                    request.getMessage(), request.getType(), request.getRelatedBookingId());
+            return ResponseEntity.ok(convertToNotificationResponse(notification, request.getUserId()));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserNotifications(@PathVariable Long userId,
+                                                  @RequestParam(defaultValue = "1") int page,
+                                                  @RequestParam(defaultValue = "20") int pageSize,
+                                                  @AuthenticationPrincipal User user) {
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        List<NotificationResponse> notifications = notificationService.findByUserId(userId, page, pageSize).stream()
+                .map(notification -> convertToNotificationResponse(notification, userId))
+                .toList();
+        return ResponseEntity.ok(notifications);
+    }
+    
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<?> getUnreadCount(@PathVariable Long userId, @AuthenticationPrincipal User user) {
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(notificationService.getUnreadCount(userId));
+    }
+    
+    // One call for any set of users; an empty or missing list returns every user with unread notifications
+    @PostMapping("/unread-counts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getUnreadCounts(@RequestBody(required = false) UnreadCountsRequest request) {
+        return ResponseEntity.ok(notificationService.getUnreadCounts(request != null ? request.getUserIds() : null));
+    }
+    
+    @PostMapping("/{notificationId}/read")
+    public ResponseEntity<?> markAsRead(@PathVariable Long notificationId, @RequestParam Long userId,
+                                        @AuthenticationPrincipal User user) {
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        Map<String, String> response = new HashMap<>();
+        if (!notificationService.markAsRead(notificationId, userId)) {
+            response.put("message", "Notification not found or already read");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("message", "Notification marked as read");
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/user/{userId}/read-all")
+    public ResponseEntity<?> markAllAsRead(@PathVariable Long userId, @AuthenticationPrincipal User user) {
+        if (!canAccess(user, userId)) {
+            return forbidden();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", notificationService.markAllAsRead(userId));
+        response.put("message", "Notifications marked as read");
+        return ResponseEntity.ok(response);
+    }
+    
+    private boolean canAccess(User user, Long userId) {
+        return user != null && (user.getRole() == User.Role.ADMIN || user.getId().equals(userId));
+    }
+    
+    private ResponseEntity<Map<String, String>> forbidden() {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Access denied");
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    }
+    
+    private NotificationResponse convertToNotificationResponse(Notification notification, Long userId) {
+        NotificationResponse response = new NotificationResponse();
+        response.setNotificationId(notification.getId());
+        response.setUserId(userId);
+        response.setTitle(notification.getTitle());
+        response.setMessage(notification.getMessage());
+        response.setType(notification.getType());
+        response.setStatus(notification.getStatus());
+        response.setRelatedBookingId(notification.getRelatedBookingId());
+        response.setCreatedAt(notification.getCreatedAt());
+        response.setReadAt(notification.getReadAt());
+        return response;
+    }
+}
@@ -0,0 +1,76 @@
+package com.prm.flightbooking.controller;
+
+import com.prm.flightbooking.dto.SeatHoldRequest;
+import com.prm.flightbooking.dto.SeatHoldResponse;
+import com.prm.flightbooking.entity.User;
+import com.prm.flightbooking.service.SeatHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/seat-holds")
+@CrossOrigin(origins = "*")
+public class SeatHoldController {
+    
+    @Autowired
+    private SeatHoldService seatHoldService;
+    
+    @PostMapping
+    public ResponseEntity<?> placeHold(@RequestBody SeatHoldRequest request, @AuthenticationPrincipal User user) {
+        try {
+            SeatHoldService.Hold hold = seatHoldService.placeHold(request.getFlightId(), request.getSeatIds(), user.getId());
+            return ResponseEntity.ok(convertToSeatHoldResponse(hold));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/{holdId}")
+    public ResponseEntity<SeatHoldResponse> getHold(@PathVariable String holdId, @AuthenticationPrincipal User user) {
+        SeatHoldService.Hold hold = seatHoldService.findHold(holdId);
+        if (hold == null || !Objects.equals(hold.getUserId(), user.getId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(convertToSeatHoldResponse(hold));
+    }
+    
+    // Seats currently held by anyone on the flight, so seat maps can grey them out
+    @GetMapping("/flight/{flightId}")
+    public ResponseEntity<Set<Long>> getHeldSeats(@PathVariable Long flightId) {
+        return ResponseEntity.ok(seatHoldService.findHeldSeatIds(flightId));
+    }
+    
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable String holdId, @AuthenticationPrincipal User user) {
+        try {
+            seatHoldService.releaseHold(holdId, user.getId());
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Hold released successfully");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(seatHoldService.getStats());
+    }
+    
+    private SeatHoldResponse convertToSeatHoldResponse(SeatHoldService.Hold hold) {
+        return new SeatHoldResponse(hold.getHoldId(), hold.getFlightId(), hold.getSeatIds(), hold.getExpiresAt());
+    }
+}
@@ -0,0 +1,44 @@
+package com.prm.flightbooking.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class AirportRequest {
+    
+    @NotBlank
+    @Size(max = 100)
+    private String name;
+    
+    @NotBlank
+    @Size(max = 10)
+    private String code;
+    
+    private String city;
+    private String country;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    
+    public AirportRequest() {}
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+    
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+}
@@ -0,0 +1,47 @@
+package com.prm.flightbooking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class AirportResponse {
+    
+    private Long id;
+    private String code;
+    private String name;
+    private String city;
+    private String country;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+    
+    public AirportResponse() {}
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+    
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+}
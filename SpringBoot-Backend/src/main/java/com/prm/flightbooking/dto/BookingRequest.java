@@ -0,0 +1,21 @@
+package com.prm.flightbooking.dto;
+
+import java.util.List;
+
+public class BookingRequest {
+    
+    private Long flightId;
+    private List<PassengerRequest> passengers;
+    private String holdId;
+    
+    public BookingRequest() {}
+    
+    public Long getFlightId() { return flightId; }
+    public void setFlightId(Long flightId) { this.flightId = flightId; }
+    
+    public List<PassengerRequest> getPassengers() { return passengers; }
+    public void setPassengers(List<PassengerRequest> passengers) { this.passengers = passengers; }
+    
+    public String getHoldId() { return holdId; }
+    public void setHoldId(String holdId) { this.holdId = holdId; }
+}
@@ -0,0 +1,61 @@
+package com.prm.flightbooking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingResponse {
+    
+    private Long id;
+    private String bookingNumber;
+    private Long flightId;
+    private Integer numberOfPassengers;
+    private BigDecimal totalPrice;
+    private String status;
+    private String paymentStatus;
+    private LocalDateTime bookingDate;
+    private List<Long> seatIds;
+    
+    public BookingResponse() {}
+    
+    public BookingResponse(Long id, String bookingNumber, Long flightId, Integer numberOfPassengers,
+                           BigDecimal totalPrice, String status, String paymentStatus,
+                           LocalDateTime bookingDate, List<Long> seatIds) {
+        this.id = id;
+        this.bookingNumber = bookingNumber;
+        this.flightId = flightId;
+        this.numberOfPassengers = numberOfPassengers;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.bookingDate = bookingDate;
+        this.seatIds = seatIds;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getBookingNumber() { return bookingNumber; }
+    public void setBookingNumber(String bookingNumber) { this.bookingNumber = bookingNumber; }
+    
+    public Long getFlightId() { return flightId; }
+    public void setFlightId(Long flightId) { this.flightId = flightId; }
+    
+    public Integer getNumberOfPassengers() { return numberOfPassengers; }
+    public void setNumberOfPassengers(Integer numberOfPassengers) { this.numberOfPassengers = numberOfPassengers; }
+    
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    
+    public LocalDateTime getBookingDate() { return bookingDate; }
+    public void setBookingDate(LocalDateTime bookingDate) { this.bookingDate = bookingDate; }
+    
+    public List<Long> getSeatIds() { return seatIds; }
+    public void setSeatIds(List<Long> seatIds) { this.seatIds = seatIds; }
+}
@@ -0,0 +1,27 @@
+package com.prm.flightbooking.dto;
+
+import com.prm.flightbooking.entity.ChatMessage.SenderType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class ChatMessageRequest {
+    
+    @NotNull
+    private Long userId;
+    
+    @NotBlank
+    private String content;
+    
+    private SenderType senderType;
+    
+    public ChatMessageRequest() {}
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    
+    public SenderType getSenderType() { return senderType; }
+    public void setSenderType(SenderType senderType) { this.senderType = senderType; }
+}
@@ -0,0 +1,51 @@
+package com.prm.flightbooking.dto;
+
+import com.prm.flightbooking.entity.ChatMessage.SenderType;
+
+import java.time.LocalDateTime;
+
+public class ChatMessageResponse {
+    
+    private Long messageId;
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private long seq;
+    private SenderType senderType;
+    private Long senderId;
+    private String content;
+    private LocalDateTime createdAt;
+    private Boolean isRead;
+    
+    public ChatMessageResponse() {}
+    
+    public Long getMessageId() { return messageId; }
+    public void setMessageId(Long messageId) { this.messageId = messageId; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+    
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+    
+    public SenderType getSenderType() { return senderType; }
+    public void setSenderType(SenderType senderType) { this.senderType = senderType; }
+    
+    public Long getSenderId() { return senderId; }
+    public void setSenderId(Long senderId) { this.senderId = senderId; }
+    
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public Boolean getIsRead() { return isRead; }
+    public void setIsRead(Boolean isRead) { this.isRead = isRead; }
+}
@@ -0,0 +1,28 @@
+package com.prm.flightbooking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class FareCalendarDay {
+    
+    private LocalDate date;
+    private BigDecimal lowestPrice;
+    private Integer flightCount;
+    
+    public FareCalendarDay() {}
+    
+    public FareCalendarDay(LocalDate date, BigDecimal lowestPrice, Integer flightCount) {
+        this.date = date;
+        this.lowestPrice = lowestPrice;
+        this.flightCount = flightCount;
+    }
+    
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    
+    public BigDecimal getLowestPrice() { return lowestPrice; }
+    public void setLowestPrice(BigDecimal lowestPrice) { this.lowestPrice = lowestPrice; }
+    
+    public Integer getFlightCount() { return flightCount; }
+    public void setFlightCount(Integer flightCount) { this.flightCount = flightCount; }
+}
@@ -0,0 +1,27 @@
+package com.prm.flightbooking.dto;
+
+import java.util.List;
+
+public class FlightPageResponse {
+    
+    private List<FlightResponse> flights;
+    private String nextCursor;
+    private boolean hasMore;
+    
+    public FlightPageResponse() {}
+    
+    public FlightPageResponse(List<FlightResponse> flights, String nextCursor, boolean hasMore) {
+        this.flights = flights;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    public List<FlightResponse> getFlights() { return flights; }
+    public void setFlights(List<FlightResponse> flights) { this.flights = flights; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
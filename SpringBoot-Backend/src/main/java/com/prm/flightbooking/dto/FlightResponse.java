@@ -1,5 +1,7 @@
 package com.prm.flightbooking.dto;
 
+import com.prm.flightbooking.entity.Flight.FlightStatus;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -23,6 +25,29 @@ public class FlightResponse {
     
     public FlightResponse() {}
     
+    // Used by the JPQL constructor expressions in FlightRepository
+    public FlightResponse(Long id, String flightNumber, String airlineName, String airlineCode,
+                          String departureAirportName, String departureAirportCode,
+                          String arrivalAirportName, String arrivalAirportCode,
+                          LocalDateTime departureTime, LocalDateTime arrivalTime, BigDecimal basePrice,
+                          Integer totalSeats, Integer availableSeats, FlightStatus status, String aircraftType) {
+        this.id = id;
+        this.flightNumber = flightNumber;
+        this.airlineName = airlineName;
+        this.airlineCode = airlineCode;
+        this.departureAirportName = departureAirportName;
+        this.departureAirportCode = departureAirportCode;
+        this.arrivalAirportName = arrivalAirportName;
+        this.arrivalAirportCode = arrivalAirportCode;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.basePrice = basePrice;
+        this.totalSeats = totalSeats;
+        this.availableSeats = availableSeats;
+        this.status = status != null ? status.name() : null;
+        this.aircraftType = aircraftType;
+    }
+    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
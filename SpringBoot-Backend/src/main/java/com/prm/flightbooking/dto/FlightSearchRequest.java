@@ -8,6 +8,9 @@ public class FlightSearchRequest {
     private String returnDate;
     private Integer passengers;
     private String seatClass;
+    private Integer maxStops;
+    private Integer minConnectionMinutes;
+    private String sortBy;
     
     public FlightSearchRequest() {}
     
@@ -28,4 +31,13 @@ public class FlightSearchRequest {
     
     public String getSeatClass() { return seatClass; }
     public void setSeatClass(String seatClass) { this.seatClass = seatClass; }
+    
+    public Integer getMaxStops() { return maxStops; }
+    public void setMaxStops(Integer maxStops) { this.maxStops = maxStops; }
+    
+    public Integer getMinConnectionMinutes() { return minConnectionMinutes; }
+    public void setMinConnectionMinutes(Integer minConnectionMinutes) { this.minConnectionMinutes = minConnectionMinutes; }
+    
+    public String getSortBy() { return sortBy; }
+    public void setSortBy(String sortBy) { this.sortBy = sortBy; }
 }
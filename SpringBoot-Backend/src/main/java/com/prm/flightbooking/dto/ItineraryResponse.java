@@ -0,0 +1,35 @@
+package com.prm.flightbooking.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ItineraryResponse {
+    
+    private List<FlightResponse> legs;
+    private Integer stops;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private Long totalDurationMinutes;
+    private BigDecimal totalPrice;
+    
+    public ItineraryResponse() {}
+    
+    public List<FlightResponse> getLegs() { return legs; }
+    public void setLegs(List<FlightResponse> legs) { this.legs = legs; }
+    
+    public Integer getStops() { return stops; }
+    public void setStops(Integer stops) { this.stops = stops; }
+    
+    public LocalDateTime getDepartureTime() { return departureTime; }
+    public void setDepartureTime(LocalDateTime departureTime) { this.departureTime = departureTime; }
+    
+    public LocalDateTime getArrivalTime() { return arrivalTime; }
+    public void setArrivalTime(LocalDateTime arrivalTime) { this.arrivalTime = arrivalTime; }
+    
+    public Long getTotalDurationMinutes() { return totalDurationMinutes; }
+    public void setTotalDurationMinutes(Long totalDurationMinutes) { this.totalDurationMinutes = totalDurationMinutes; }
+    
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
+}
@@ -0,0 +1,35 @@
+package com.prm.flightbooking.dto;
+
+public class NearbyFlightSearchRequest {
+    
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private Long arrivalAirportId;
+    private String departureDate;
+    private Integer passengers;
+    private String seatClass;
+    
+    public NearbyFlightSearchRequest() {}
+    
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    
+    public Double getRadiusKm() { return radiusKm; }
+    public void setRadiusKm(Double radiusKm) { this.radiusKm = radiusKm; }
+    
+    public Long getArrivalAirportId() { return arrivalAirportId; }
+    public void setArrivalAirportId(Long arrivalAirportId) { this.arrivalAirportId = arrivalAirportId; }
+    
+    public String getDepartureDate() { return departureDate; }
+    public void setDepartureDate(String departureDate) { this.departureDate = departureDate; }
+    
+    public Integer getPassengers() { return passengers; }
+    public void setPassengers(Integer passengers) { this.passengers = passengers; }
+    
+    public String getSeatClass() { return seatClass; }
+    public void setSeatClass(String seatClass) { this.seatClass = seatClass; }
+}
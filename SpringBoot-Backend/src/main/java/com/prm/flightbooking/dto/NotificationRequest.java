@@ -0,0 +1,35 @@
+package com.prm.flightbooking.dto;
+
+import com.prm.flightbooking.entity.Notification.NotificationType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class NotificationRequest {
+    
+    @NotNull
+    private Long userId;
+    
+    @NotBlank
+    private String title;
+    
+    private String message;
+    private NotificationType type;
+    private Long relatedBookingId;
+    
+    public NotificationRequest() {}
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    
+    public Long getRelatedBookingId() { return relatedBookingId; }
+    public void setRelatedBookingId(Long relatedBookingId) { this.relatedBookingId = relatedBookingId; }
+}
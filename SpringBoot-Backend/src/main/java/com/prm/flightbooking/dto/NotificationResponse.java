@@ -0,0 +1,48 @@
+package com.prm.flightbooking.dto;
+
+import com.prm.flightbooking.entity.Notification.NotificationStatus;
+import com.prm.flightbooking.entity.Notification.NotificationType;
+
+import java.time.LocalDateTime;
+
+public class NotificationResponse {
+    
+    private Long notificationId;
+    private Long userId;
+    private String title;
+    private String message;
+    private NotificationType type;
+    private NotificationStatus status;
+    private Long relatedBookingId;
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+    
+    public NotificationResponse() {}
+    
+    public Long getNotificationId() { return notificationId; }
+    public void setNotificationId(Long notificationId) { this.notificationId = notificationId; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    
+    public NotificationStatus getStatus() { return status; }
+    public void setStatus(NotificationStatus status) { this.status = status; }
+    
+    public Long getRelatedBookingId() { return relatedBookingId; }
+    public void setRelatedBookingId(Long relatedBookingId) { this.relatedBookingId = relatedBookingId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getReadAt() { return readAt; }
+    public void setReadAt(LocalDateTime readAt) { this.readAt = readAt; }
+}
@@ -0,0 +1,27 @@
+package com.prm.flightbooking.dto;
+
+public class PassengerRequest {
+    
+    private Long seatId;
+    private String passengerName;
+    private String passengerId;
+    private String passengerEmail;
+    private String passengerPhone;
+    
+    public PassengerRequest() {}
+    
+    public Long getSeatId() { return seatId; }
+    public void setSeatId(Long seatId) { this.seatId = seatId; }
+    
+    public String getPassengerName() { return passengerName; }
+    public void setPassengerName(String passengerName) { this.passengerName = passengerName; }
+    
+    public String getPassengerId() { return passengerId; }
+    public void setPassengerId(String passengerId) { this.passengerId = passengerId; }
+    
+    public String getPassengerEmail() { return passengerEmail; }
+    public void setPassengerEmail(String passengerEmail) { this.passengerEmail = passengerEmail; }
+    
+    public String getPassengerPhone() { return passengerPhone; }
+    public void setPassengerPhone(String passengerPhone) { this.passengerPhone = passengerPhone; }
+}
@@ -0,0 +1,22 @@
+package com.prm.flightbooking.dto;
+
+import java.util.List;
+
+public class RoundTripResponse {
+    
+    private List<FlightResponse> outboundFlights;
+    private List<FlightResponse> returnFlights;
+    
+    public RoundTripResponse() {}
+    
+    public RoundTripResponse(List<FlightResponse> outboundFlights, List<FlightResponse> returnFlights) {
+        this.outboundFlights = outboundFlights;
+        this.returnFlights = returnFlights;
+    }
+    
+    public List<FlightResponse> getOutboundFlights() { return outboundFlights; }
+    public void setOutboundFlights(List<FlightResponse> outboundFlights) { this.outboundFlights = outboundFlights; }
+    
+    public List<FlightResponse> getReturnFlights() { return returnFlights; }
+    public void setReturnFlights(List<FlightResponse> returnFlights) { this.returnFlights = returnFlights; }
+}
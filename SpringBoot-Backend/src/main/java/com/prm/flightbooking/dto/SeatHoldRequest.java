@@ -0,0 +1,17 @@
+package com.prm.flightbooking.dto;
+
+import java.util.List;
+
+public class SeatHoldRequest {
+    
+    private Long flightId;
+    private List<Long> seatIds;
+    
+    public SeatHoldRequest() {}
+    
+    public Long getFlightId() { return flightId; }
+    public void setFlightId(Long flightId) { this.flightId = flightId; }
+    
+    public List<Long> getSeatIds() { return seatIds; }
+    public void setSeatIds(List<Long> seatIds) { this.seatIds = seatIds; }
+}
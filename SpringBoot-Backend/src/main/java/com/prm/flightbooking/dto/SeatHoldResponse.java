@@ -0,0 +1,33 @@
+package com.prm.flightbooking.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SeatHoldResponse {
+    
+    private String holdId;
+    private Long flightId;
+    private List<Long> seatIds;
+    private LocalDateTime expiresAt;
+    
+    public SeatHoldResponse() {}
+    
+    public SeatHoldResponse(String holdId, Long flightId, List<Long> seatIds, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.flightId = flightId;
+        this.seatIds = seatIds;
+        this.expiresAt = expiresAt;
+    }
+    
+    public String getHoldId() { return holdId; }
+    public void setHoldId(String holdId) { this.holdId = holdId; }
+    
+    public Long getFlightId() { return flightId; }
+    public void setFlightId(Long flightId) { this.flightId = flightId; }
+    
+    public List<Long> getSeatIds() { return seatIds; }
+    public void setSeatIds(List<Long> seatIds) { this.seatIds = seatIds; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,13 @@
+package com.prm.flightbooking.dto;
+
+import java.util.List;
+
+public class UnreadCountsRequest {
+    
+    private List<Long> userIds;
+    
+    public UnreadCountsRequest() {}
+    
+    public List<Long> getUserIds() { return userIds; }
+    public void setUserIds(List<Long> userIds) { this.userIds = userIds; }
+}
@@ -11,8 +11,10 @@ import java.time.LocalDateTime;
 @Table(name = "booking_seats")
 public class BookingSeat {
     
+    // Same pooled scheme as Booking, so a booking's seat rows are inserted in one batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seats_seq")
+    @SequenceGenerator(name = "booking_seats_seq", sequenceName = "booking_seats_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
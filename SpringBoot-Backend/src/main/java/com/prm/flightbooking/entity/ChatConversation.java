@@ -0,0 +1,69 @@
+package com.prm.flightbooking.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+// One support conversation per user. lastSeq is the sequence number of the newest message;
+// userReadSeq and adminReadSeq are the read cursors of the two sides.
+@Entity
+@Table(name = "chat_conversations")
+public class ChatConversation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+    
+    @Column(nullable = false)
+    private long lastSeq;
+    
+    @Column(nullable = false)
+    private long userReadSeq;
+    
+    @Column(nullable = false)
+    private long adminReadSeq;
+    
+    private LocalDateTime lastMessageAt;
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public ChatConversation() {}
+    
+    public ChatConversation(User user) {
+        this.user = user;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    
+    public long getLastSeq() { return lastSeq; }
+    public void setLastSeq(long lastSeq) { this.lastSeq = lastSeq; }
+    
+    public long getUserReadSeq() { return userReadSeq; }
+    public void setUserReadSeq(long userReadSeq) { this.userReadSeq = userReadSeq; }
+    
+    public long getAdminReadSeq() { return adminReadSeq; }
+    public void setAdminReadSeq(long adminReadSeq) { this.adminReadSeq = adminReadSeq; }
+    
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,83 @@
+package com.prm.flightbooking.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+// Append-only; seq is dense and increasing within a conversation
+@Entity
+@Table(name = "chat_messages",
+       uniqueConstraints = @UniqueConstraint(name = "uk_chat_messages_conversation_seq", columnNames = {"conversation_id", "seq"}))
+public class ChatMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private ChatConversation conversation;
+    
+    @Column(nullable = false)
+    private long seq;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SenderType senderType;
+    
+    private Long senderId;
+    
+    @NotBlank
+    @Size(max = 2000)
+    @Column(length = 2000)
+    private String content;
+    
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public ChatMessage() {}
+    
+    public ChatMessage(ChatConversation conversation, long seq, SenderType senderType, Long senderId, String content) {
+        this.conversation = conversation;
+        this.seq = seq;
+        this.senderType = senderType;
+        this.senderId = senderId;
+        this.content = content;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public ChatConversation getConversation() { return conversation; }
+    public void setConversation(ChatConversation conversation) { this.conversation = conversation; }
+    
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+    
+    public SenderType getSenderType() { return senderType; }
+    public void setSenderType(SenderType senderType) { this.senderType = senderType; }
+    
+    public Long getSenderId() { return senderId; }
+    public void setSenderId(Long senderId) { this.senderId = senderId; }
+    
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public enum SenderType {
+        USER, ADMIN, SYSTEM
+    }
+}
@@ -0,0 +1,93 @@
+package com.prm.flightbooking.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notifications", indexes = @Index(name = "idx_notifications_user_status", columnList = "user_id, status"))
+public class Notification {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+    
+    @NotBlank
+    @Size(max = 200)
+    private String title;
+    
+    @Size(max = 1000)
+    private String message;
+    
+    @Enumerated(EnumType.STRING)
+    private NotificationType type = NotificationType.REMINDER;
+    
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status = NotificationStatus.UNREAD;
+    
+    private Long relatedBookingId;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    // Constructors
+    public Notification() {}
+    
+    public Notification(User user, String title, String message, NotificationType type, Long relatedBookingId) {
+        this.user = user;
+        this.title = title;
+        this.message = message;
+        this.type = type;
+        this.relatedBookingId = relatedBookingId;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    
+    public NotificationType getType() { return type; }
+    public void setType(NotificationType type) { this.type = type; }
+    
+    public NotificationStatus getStatus() { return status; }
+    public void setStatus(NotificationStatus status) { this.status = status; }
+    
+    public Long getRelatedBookingId() { return relatedBookingId; }
+    public void setRelatedBookingId(Long relatedBookingId) { this.relatedBookingId = relatedBookingId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getReadAt() { return readAt; }
+    public void setReadAt(LocalDateTime readAt) { this.readAt = readAt; }
+    
+    public enum NotificationType {
+        BOOKING, FLIGHT_UPDATE, PAYMENT, REMINDER
+    }
+    
+    public enum NotificationStatus {
+        UNREAD, READ
+    }
+}
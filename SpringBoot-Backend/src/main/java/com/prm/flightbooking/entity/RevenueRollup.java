@@ -0,0 +1,93 @@
+package com.prm.flightbooking.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Pre-summed payments per (granularity, bucket, method, status). bucketStart is the first day of the
+// day / month / year the payment falls in, dated by paymentDate or, before payment, createdAt.
+@Entity
+@Table(name = "revenue_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_revenue_rollup_bucket", columnNames = {"granularity", "bucketStart", "paymentMethod", "status"}))
+public class RevenueRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+    
+    @Column(nullable = false)
+    private LocalDate bucketStart;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Payment.PaymentMethod paymentMethod;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Payment.PaymentStatus status;
+    
+    @Column(nullable = false)
+    private Long paymentCount = 0L;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+    
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public RevenueRollup() {}
+    
+    public RevenueRollup(Granularity granularity, LocalDate bucketStart, Payment.PaymentMethod paymentMethod,
+                         Payment.PaymentStatus status, Long paymentCount, BigDecimal amount) {
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.paymentCount = paymentCount;
+        this.amount = amount;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Granularity getGranularity() { return granularity; }
+    public void setGranularity(Granularity granularity) { this.granularity = granularity; }
+    
+    public LocalDate getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDate bucketStart) { this.bucketStart = bucketStart; }
+    
+    public Payment.PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(Payment.PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+    
+    public Payment.PaymentStatus getStatus() { return status; }
+    public void setStatus(Payment.PaymentStatus status) { this.status = status; }
+    
+    public Long getPaymentCount() { return paymentCount; }
+    public void setPaymentCount(Long paymentCount) { this.paymentCount = paymentCount; }
+    
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public enum Granularity {
+        DAY, MONTH, YEAR;
+        
+        public LocalDate bucketOf(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case MONTH -> date.withDayOfMonth(1);
+                case YEAR -> date.withDayOfYear(1);
+            };
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.prm.flightbooking.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// One row per scheduled job; whoever holds an unexpired lease is the only node that runs the job
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease implements Persistable<String> {
+    
+    @Id
+    @Size(max = 100)
+    private String name;
+    
+    @Size(max = 200)
+    private String owner;
+    
+    private LocalDateTime leaseUntil;
+    
+    // The id is assigned, so without this save() would merge and a node losing the creation race would
+    // overwrite the winner's row instead of failing on the primary key
+    @Transient
+    private boolean isNew = true;
+    
+    // Constructors
+    public SchedulerLease() {}
+    
+    public SchedulerLease(String name, String owner, LocalDateTime leaseUntil) {
+        this.name = name;
+        this.owner = owner;
+        this.leaseUntil = leaseUntil;
+    }
+    
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+    
+    @Override
+    public String getId() { return name; }
+    
+    @Override
+    public boolean isNew() { return isNew; }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+}
@@ -3,12 +3,18 @@ package com.prm.flightbooking.repository;
 import com.prm.flightbooking.entity.Booking;
 import com.prm.flightbooking.entity.Booking.BookingStatus;
 import com.prm.flightbooking.entity.Booking.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +39,88 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.flight.id = :flightId AND b.status = 'CONFIRMED'")
     Long countConfirmedBookingsByFlightId(@Param("flightId") Long flightId);
+    
+    @Query("SELECT DISTINCT b.flight.id FROM Booking b WHERE b.updatedAt >= :since")
+    List<Long> findFlightIdsWithBookingsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    // Rows are [flightId, confirmedBookingCount, bookedPassengerCount]
+    @Query("SELECT b.flight.id, COUNT(b), SUM(b.numberOfPassengers) FROM Booking b " +
+           "WHERE b.flight.id IN :flightIds AND b.status IN ('CONFIRMED', 'COMPLETED') GROUP BY b.flight.id")
+    List<Object[]> countConfirmedBookingsByFlightIdIn(@Param("flightIds") Collection<Long> flightIds);
+    
+    // Rows are [bookingId, bookingDate] for bookings still waiting for payment
+    @Query("SELECT b.id, b.bookingDate FROM Booking b WHERE b.status = 'PENDING' AND b.paymentStatus = 'PENDING'")
+    List<Object[]> findUnpaidPendingDeadlines();
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = 'PENDING' AND b.paymentStatus = 'PENDING'")
+    List<Long> lockUnpaidPendingIds(@Param("ids") Collection<Long> ids);
+    
+    // Leaves out bookings paid since they were picked; those need a human, not a cancellation
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = 'PENDING' AND b.paymentStatus <> 'PAID'")
+    List<Long> lockPendingIds(@Param("ids") Collection<Long> ids);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'CANCELLED', b.updatedAt = :now WHERE b.id IN :ids")
+    int cancelByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Rows are [flightId, passengerCount]
+    @Query("SELECT b.flight.id, SUM(b.numberOfPassengers) FROM Booking b WHERE b.id IN :ids GROUP BY b.flight.id")
+    List<Object[]> sumPassengersByFlightForIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Rows are [bookingId, paymentStatus, totalPrice, flightStatus, departureTime, amountPaid] for one keyset page of PENDING bookings
+    @Query("SELECT b.id, b.paymentStatus, b.totalPrice, f.status, f.departureTime, " +
+           "(SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.booking = b AND p.status = 'SUCCESS') " +
+           "FROM Booking b LEFT JOIN b.flight f WHERE b.status = 'PENDING' AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findPendingApprovalRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Re-checks the flight too, so one cancelled or departed since the bookings were read is left alone
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'CONFIRMED', b.updatedAt = :now " +
+           "WHERE b.id IN :ids AND b.status = 'PENDING' AND b.paymentStatus = 'PAID' AND b.flight.id IN (" +
+           "SELECT f.id FROM Flight f WHERE f.status IN ('SCHEDULED', 'DELAYED') AND f.departureTime > :now)")
+    int confirmPaidByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Which of the ids a confirmPaidByIdIn run at :now actually confirmed
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = 'CONFIRMED' AND b.updatedAt >= :now ORDER BY b.id")
+    List<Long> findIdsConfirmedSince(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Rows are [status, paymentStatus, bookingCount, totalPriceSum]
+    @Query("SELECT b.status, b.paymentStatus, COUNT(b), SUM(b.totalPrice) FROM Booking b GROUP BY b.status, b.paymentStatus")
+    List<Object[]> summarizeByStatusAndPaymentStatus();
+    
+    // At most one row: [status, paymentStatus, totalPrice, updatedAt]
+    @Query("SELECT b.status, b.paymentStatus, b.totalPrice, b.updatedAt FROM Booking b WHERE b.id = :id")
+    List<Object[]> findStateById(@Param("id") Long id);
+    
+    // Rows are [departureAirportId, arrivalAirportId, airlineId, bookingCount] for the given bookings
+    @Query("SELECT f.departureAirport.id, f.arrivalAirport.id, f.airline.id, COUNT(b) FROM Booking b JOIN b.flight f " +
+           "WHERE b.id IN :ids GROUP BY f.departureAirport.id, f.arrivalAirport.id, f.airline.id")
+    List<Object[]> countByRouteAndAirlineForIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Rows are [departureAirportId, arrivalAirportId, airlineId, bookingCount] over all confirmed bookings
+    @Query("SELECT f.departureAirport.id, f.arrivalAirport.id, f.airline.id, COUNT(b) FROM Booking b JOIN b.flight f " +
+           "WHERE b.status IN ('CONFIRMED', 'COMPLETED') GROUP BY f.departureAirport.id, f.arrivalAirport.id, f.airline.id")
+    List<Object[]> countConfirmedByRouteAndAirline();
+    
+    // Rows are [departureAirportId, arrivalAirportId, airlineId, year, month, day, bookingCount], dated by updatedAt
+    @Query("SELECT f.departureAirport.id, f.arrivalAirport.id, f.airline.id, YEAR(b.updatedAt), MONTH(b.updatedAt), DAY(b.updatedAt), COUNT(b) " +
+           "FROM Booking b JOIN b.flight f WHERE b.status IN ('CONFIRMED', 'COMPLETED') AND b.updatedAt >= :since " +
+           "GROUP BY f.departureAirport.id, f.arrivalAirport.id, f.airline.id, YEAR(b.updatedAt), MONTH(b.updatedAt), DAY(b.updatedAt)")
+    List<Object[]> countConfirmedByRouteAndAirlinePerDaySince(@Param("since") LocalDateTime since);
+    
+    // Exact top routes, for audits of the sketch; rows are [departureAirportId, arrivalAirportId, bookingCount]
+    @Query("SELECT f.departureAirport.id, f.arrivalAirport.id, COUNT(b) FROM Booking b JOIN b.flight f " +
+           "WHERE b.status IN ('CONFIRMED', 'COMPLETED') AND b.updatedAt >= :since " +
+           "GROUP BY f.departureAirport.id, f.arrivalAirport.id ORDER BY COUNT(b) DESC")
+    List<Object[]> findTopRoutesSince(@Param("since") LocalDateTime since, Pageable pageable);
+    
+    // Exact top airlines, for audits of the sketch; rows are [airlineId, bookingCount]
+    @Query("SELECT f.airline.id, COUNT(b) FROM Booking b JOIN b.flight f " +
+           "WHERE b.status IN ('CONFIRMED', 'COMPLETED') AND b.updatedAt >= :since " +
+           "GROUP BY f.airline.id ORDER BY COUNT(b) DESC")
+    List<Object[]> findTopAirlinesSince(@Param("since") LocalDateTime since, Pageable pageable);
 }
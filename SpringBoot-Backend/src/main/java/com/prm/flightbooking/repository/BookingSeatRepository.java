@@ -0,0 +1,24 @@
+package com.prm.flightbooking.repository;
+
+import com.prm.flightbooking.entity.BookingSeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long> {
+    
+    List<BookingSeat> findByBookingId(Long bookingId);
+    
+    @Query("SELECT bs FROM BookingSeat bs WHERE bs.seat.flight.id = :flightId")
+    List<BookingSeat> findByFlightId(@Param("flightId") Long flightId);
+    
+    // Rows are [flightId, seatClass, seatCount] over the occupied seats of the given bookings
+    @Query("SELECT s.flight.id, s.seatClass, COUNT(s) FROM BookingSeat bs JOIN bs.seat s " +
+           "WHERE bs.booking.id IN :bookingIds AND s.status = 'OCCUPIED' GROUP BY s.flight.id, s.seatClass")
+    List<Object[]> countOccupiedSeatsByBookingIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -0,0 +1,53 @@
+package com.prm.flightbooking.repository;
+
+import com.prm.flightbooking.entity.ChatConversation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChatConversationRepository extends JpaRepository<ChatConversation, Long> {
+    
+    @Query("SELECT c FROM ChatConversation c WHERE c.user.id = :userId")
+    Optional<ChatConversation> findByUserId(@Param("userId") Long userId);
+    
+    // Serializes appends to one conversation so sequence numbers stay dense
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ChatConversation c WHERE c.user.id = :userId")
+    Optional<ChatConversation> lockByUserId(@Param("userId") Long userId);
+    
+    // Cursors only move forward and never past the last message
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ChatConversation c SET c.userReadSeq = :seq " +
+           "WHERE c.user.id = :userId AND c.userReadSeq < :seq AND c.lastSeq >= :seq")
+    int advanceUserRead(@Param("userId") Long userId, @Param("seq") long seq);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ChatConversation c SET c.adminReadSeq = :seq " +
+           "WHERE c.user.id = :userId AND c.adminReadSeq < :seq AND c.lastSeq >= :seq")
+    int advanceAdminRead(@Param("userId") Long userId, @Param("seq") long seq);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ChatConversation c SET c.userReadSeq = c.lastSeq WHERE c.user.id = :userId AND c.userReadSeq < c.lastSeq")
+    int markAllReadByUser(@Param("userId") Long userId);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ChatConversation c SET c.adminReadSeq = c.lastSeq WHERE c.user.id = :userId AND c.adminReadSeq < c.lastSeq")
+    int markAllReadByAdmin(@Param("userId") Long userId);
+    
+    // Rows are [userId, unreadCount] for conversations with messages the admins have not read
+    @Query("SELECT c.user.id, c.lastSeq - c.adminReadSeq FROM ChatConversation c WHERE c.lastSeq > c.adminReadSeq")
+    List<Object[]> findAdminUnreadCounts();
+}
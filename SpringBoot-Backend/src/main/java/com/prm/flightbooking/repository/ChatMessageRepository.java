@@ -0,0 +1,32 @@
+package com.prm.flightbooking.repository;
+
+import com.prm.flightbooking.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
+    
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.conversation c JOIN FETCH c.user " +
+           "WHERE c.user.id = :userId AND m.seq > :afterSeq ORDER BY m.seq")
+    List<ChatMessage> findSince(@Param("userId") Long userId, @Param("afterSeq") long afterSeq, Pageable pageable);
+    
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.conversation c JOIN FETCH c.user WHERE m.id = :id")
+    Optional<ChatMessage> findWithConversationById(@Param("id") Long id);
+    
+    // The newest message of each conversation, most recently active first
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.conversation c JOIN FETCH c.user " +
+           "WHERE m.seq = c.lastSeq ORDER BY c.lastMessageAt DESC")
+    List<ChatMessage> findLatestPerConversation(Pageable pageable);
+    
+    // Everything past the admins' read cursor
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.conversation c JOIN FETCH c.user " +
+           "WHERE m.seq > c.adminReadSeq ORDER BY c.lastMessageAt DESC, m.seq")
+    List<ChatMessage> findUnreadByAdmin(Pageable pageable);
+}
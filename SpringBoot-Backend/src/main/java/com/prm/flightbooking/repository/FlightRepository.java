@@ -1,18 +1,35 @@
 package com.prm.flightbooking.repository;
 
+import com.prm.flightbooking.dto.FlightResponse;
 import com.prm.flightbooking.entity.Flight;
 import com.prm.flightbooking.entity.Flight.FlightStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, Long> {
     
+    String FLIGHT_RESPONSE_SELECT = "SELECT new com.prm.flightbooking.dto.FlightResponse(" +
+            "f.id, f.flightNumber, al.name, al.code, da.name, da.code, aa.name, aa.code, " +
+            "f.departureTime, f.arrivalTime, f.basePrice, f.totalSeats, f.availableSeats, f.status, ac.name) " +
+            "FROM Flight f LEFT JOIN f.airline al LEFT JOIN f.departureAirport da " +
+            "LEFT JOIN f.arrivalAirport aa LEFT JOIN f.aircraftType ac";
+    
     List<Flight> findByStatus(FlightStatus status);
     
     @Query("SELECT f FROM Flight f WHERE f.departureAirport.id = :departureId AND f.arrivalAirport.id = :arrivalId AND f.departureTime >= :departureDate")
@@ -35,4 +52,97 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
     
     @Query("SELECT f FROM Flight f WHERE f.departureTime < :currentTime AND f.status = 'SCHEDULED'")
     List<Flight> findOverdueFlights(@Param("currentTime") LocalDateTime currentTime);
+    
+    @Query(FLIGHT_RESPONSE_SELECT)
+    List<FlightResponse> findAllFlightResponses();
+    
+    @Query(FLIGHT_RESPONSE_SELECT + " WHERE f.availableSeats > 0 AND f.status = 'SCHEDULED'")
+    List<FlightResponse> findAvailableFlightResponses();
+    
+    @Query(FLIGHT_RESPONSE_SELECT + " WHERE f.id IN :ids")
+    List<FlightResponse> findFlightResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(FLIGHT_RESPONSE_SELECT + " ORDER BY f.departureTime, f.id")
+    List<FlightResponse> findFlightResponsePage(Pageable pageable);
+    
+    @Query(FLIGHT_RESPONSE_SELECT + " WHERE f.departureTime > :departureTime OR (f.departureTime = :departureTime AND f.id > :id) ORDER BY f.departureTime, f.id")
+    List<FlightResponse> findFlightResponsePageAfter(@Param("departureTime") LocalDateTime departureTime,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(FLIGHT_RESPONSE_SELECT + " ORDER BY f.departureTime, f.id")
+    Stream<FlightResponse> streamAllFlightResponses();
+    
+    @Query("SELECT f.id, f.departureAirport.id, f.arrivalAirport.id, f.departureTime FROM Flight f")
+    List<Object[]> findRouteIndexEntries();
+    
+    @Query("SELECT f.id, f.departureAirport.id, f.arrivalAirport.id, f.departureTime, f.arrivalTime, f.basePrice FROM Flight f " +
+           "WHERE f.departureTime >= :from AND f.availableSeats > 0 AND f.status IN ('SCHEDULED', 'DELAYED')")
+    List<Object[]> findTimetableEntries(@Param("from") LocalDateTime from);
+    
+    // Guarded decrement: updates nothing (returns 0) when fewer than :count seats are left
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats - :count, f.version = f.version + 1, f.updatedAt = :now " +
+           "WHERE f.id = :flightId AND f.availableSeats >= :count")
+    int decrementAvailableSeats(@Param("flightId") Long flightId, @Param("count") int count, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats + :count, f.version = f.version + 1, f.updatedAt = :now " +
+           "WHERE f.id = :flightId AND f.availableSeats + :count <= f.totalSeats")
+    int incrementAvailableSeats(@Param("flightId") Long flightId, @Param("count") int count, @Param("now") LocalDateTime now);
+    
+    // Locked in id order so concurrent batches cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Flight f WHERE f.id IN :ids ORDER BY f.id")
+    List<Flight> lockByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT f.id FROM Flight f WHERE f.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT f.id FROM Flight f")
+    List<Long> findAllIds();
+    
+    // Rows are [flightId, totalSeats, availableSeats]
+    @Query("SELECT f.id, f.totalSeats, f.availableSeats FROM Flight f WHERE f.id IN :ids")
+    List<Object[]> findSeatCountsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Only applies if availableSeats still holds the value the caller observed
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.availableSeats = :expected, f.version = f.version + 1, f.updatedAt = :now " +
+           "WHERE f.id = :flightId AND f.availableSeats = :observed")
+    int correctAvailableSeats(@Param("flightId") Long flightId, @Param("observed") int observed,
+                              @Param("expected") int expected, @Param("now") LocalDateTime now);
+    
+    // Keyset page of flights in one of the given statuses whose departure (or arrival) time has passed
+    @Query("SELECT f.id FROM Flight f WHERE f.status IN :statuses AND f.departureTime < :now AND f.id > :afterId ORDER BY f.id")
+    List<Long> findIdsDepartedBefore(@Param("statuses") Collection<FlightStatus> statuses, @Param("now") LocalDateTime now,
+                                     @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT f.id FROM Flight f WHERE f.status IN :statuses AND f.arrivalTime < :now AND f.id > :afterId ORDER BY f.id")
+    List<Long> findIdsArrivedBefore(@Param("statuses") Collection<FlightStatus> statuses, @Param("now") LocalDateTime now,
+                                    @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Guards repeat the selection predicate so a flight changed in between (e.g. delayed or cancelled) is left alone
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.status = :to, f.version = f.version + 1, f.updatedAt = :now " +
+           "WHERE f.id IN :ids AND f.status IN :from AND f.departureTime < :now")
+    int markDeparted(@Param("ids") Collection<Long> ids, @Param("from") Collection<FlightStatus> from,
+                     @Param("to") FlightStatus to, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Flight f SET f.status = :to, f.version = f.version + 1, f.updatedAt = :now " +
+           "WHERE f.id IN :ids AND f.status IN :from AND f.arrivalTime < :now")
+    int markArrived(@Param("ids") Collection<Long> ids, @Param("from") Collection<FlightStatus> from,
+                    @Param("to") FlightStatus to, @Param("now") LocalDateTime now);
+    
+    // Which of the ids a markDeparted / markArrived run at :now actually moved
+    @Query("SELECT f.id FROM Flight f WHERE f.id IN :ids AND f.status = :status AND f.updatedAt >= :now ORDER BY f.id")
+    List<Long> findIdsMovedTo(@Param("ids") Collection<Long> ids, @Param("status") FlightStatus status,
+                              @Param("now") LocalDateTime now);
 }
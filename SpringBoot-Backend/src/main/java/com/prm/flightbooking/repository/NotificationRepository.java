@@ -0,0 +1,36 @@
+package com.prm.flightbooking.repository;
+
+import com.prm.flightbooking.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    // Rows are [userId, unreadCount]
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n WHERE n.status = 'UNREAD' GROUP BY n.user.id")
+    List<Object[]> countUnreadByUser();
+    
+    // Returns 1 only for the call that actually flips the notification, so counters move once
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'READ', n.readAt = :now " +
+           "WHERE n.id = :id AND n.user.id = :userId AND n.status = 'UNREAD'")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'READ', n.readAt = :now WHERE n.user.id = :userId AND n.status = 'UNREAD'")
+    int markAllRead(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+}
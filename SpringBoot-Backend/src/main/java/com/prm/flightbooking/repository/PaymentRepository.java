@@ -25,4 +25,20 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT p FROM Payment p WHERE p.paymentDate BETWEEN :startDate AND :endDate")
     List<Payment> findByPaymentDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Rows are [status, paymentCount, amountSum]
+    @Query("SELECT p.status, COUNT(p), SUM(p.amount) FROM Payment p GROUP BY p.status")
+    List<Object[]> summarizeByStatus();
+    
+    // Rows are [status, amount, paymentMethod, paymentDate, createdAt]
+    @Query("SELECT p.status, p.amount, p.paymentMethod, p.paymentDate, p.createdAt FROM Payment p WHERE p.booking.id = :bookingId")
+    List<Object[]> findStatesByBookingId(@Param("bookingId") Long bookingId);
+    
+    // Rows are [year, month, day, paymentMethod, status, paymentCount, amountSum], dated like RevenueRollup buckets
+    @Query("SELECT YEAR(COALESCE(p.paymentDate, p.createdAt)), MONTH(COALESCE(p.paymentDate, p.createdAt)), " +
+           "DAY(COALESCE(p.paymentDate, p.createdAt)), p.paymentMethod, p.status, COUNT(p), SUM(p.amount) FROM Payment p " +
+           "WHERE p.paymentMethod IS NOT NULL AND COALESCE(p.paymentDate, p.createdAt) IS NOT NULL " +
+           "GROUP BY YEAR(COALESCE(p.paymentDate, p.createdAt)), MONTH(COALESCE(p.paymentDate, p.createdAt)), " +
+           "DAY(COALESCE(p.paymentDate, p.createdAt)), p.paymentMethod, p.status")
+    List<Object[]> summarizeByDay();
 }
@@ -0,0 +1,40 @@
+package com.prm.flightbooking.repository;
+
+import com.prm.flightbooking.entity.Payment.PaymentMethod;
+import com.prm.flightbooking.entity.Payment.PaymentStatus;
+import com.prm.flightbooking.entity.RevenueRollup;
+import com.prm.flightbooking.entity.RevenueRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+    
+    // Adds to an existing bucket row in place; returns 0 if the bucket has no row yet
+    @Transactional
+    @Modifying
+    @Query("UPDATE RevenueRollup r SET r.paymentCount = r.paymentCount + :count, r.amount = r.amount + :amount, r.updatedAt = :now " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart " +
+           "AND r.paymentMethod = :paymentMethod AND r.status = :status")
+    int addToBucket(@Param("granularity") Granularity granularity, @Param("bucketStart") LocalDate bucketStart,
+                    @Param("paymentMethod") PaymentMethod paymentMethod, @Param("status") PaymentStatus status,
+                    @Param("count") long count, @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT r FROM RevenueRollup r WHERE r.bucketStart BETWEEN :from AND :to AND r.granularity IN :granularities " +
+           "ORDER BY r.granularity, r.bucketStart")
+    List<RevenueRollup> findBuckets(@Param("granularities") List<Granularity> granularities,
+                                    @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Modifying
+    @Query("DELETE FROM RevenueRollup r")
+    int deleteAllBuckets();
+}
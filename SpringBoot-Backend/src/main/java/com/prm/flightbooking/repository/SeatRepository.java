@@ -3,11 +3,17 @@ package com.prm.flightbooking.repository;
 import com.prm.flightbooking.entity.Seat;
 import com.prm.flightbooking.entity.Seat.SeatClass;
 import com.prm.flightbooking.entity.Seat.SeatStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -27,4 +33,33 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     
     @Query("SELECT COUNT(s) FROM Seat s WHERE s.flight.id = :flightId AND s.status = 'AVAILABLE'")
     Long countAvailableSeatsByFlightId(@Param("flightId") Long flightId);
+    
+    @Query("SELECT s.flight.id, s.seatClass, s.status, COUNT(s) FROM Seat s GROUP BY s.flight.id, s.seatClass, s.status")
+    List<Object[]> countSeatsGroupedByFlightClassAndStatus();
+    
+    // Compare-and-set on status: only seats still in :from change, and the count of changed rows is returned
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Seat s SET s.status = :to, s.version = s.version + 1, s.updatedAt = :now " +
+           "WHERE s.id IN :seatIds AND s.status = :from")
+    int updateStatusIfCurrent(@Param("seatIds") Collection<Long> seatIds, @Param("from") SeatStatus from,
+                              @Param("to") SeatStatus to, @Param("now") LocalDateTime now);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seat s WHERE s.id IN :seatIds ORDER BY s.id")
+    List<Seat> lockByIdIn(@Param("seatIds") Collection<Long> seatIds);
+    
+    @Query("SELECT DISTINCT s.flight.id FROM Seat s WHERE s.updatedAt >= :since")
+    List<Long> findFlightIdsWithSeatsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    // Rows are [flightId, seatCount, availableSeatCount]
+    @Query("SELECT s.flight.id, COUNT(s), SUM(CASE WHEN s.status = 'AVAILABLE' THEN 1 ELSE 0 END) FROM Seat s " +
+           "WHERE s.flight.id IN :flightIds GROUP BY s.flight.id")
+    List<Object[]> countSeatsByFlightIdIn(@Param("flightIds") Collection<Long> flightIds);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Seat s SET s.status = 'AVAILABLE', s.version = s.version + 1, s.updatedAt = :now " +
+           "WHERE s.status = 'OCCUPIED' AND s.id IN (SELECT bs.seat.id FROM BookingSeat bs WHERE bs.booking.id IN :bookingIds)")
+    int releaseSeatsOfBookings(@Param("bookingIds") Collection<Long> bookingIds, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,356 @@
+package com.prm.flightbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prm.flightbooking.entity.Booking;
+import com.prm.flightbooking.entity.Booking.BookingStatus;
+import com.prm.flightbooking.entity.ChatMessage;
+import com.prm.flightbooking.entity.Flight.FlightStatus;
+import com.prm.flightbooking.entity.Payment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live feed for the admin console over Server-Sent Events. Writers publish compact deltas keyed by entity
+// ("booking:42"); a tick coalesces everything published since the last tick, keeping only the latest delta
+// per entity, serializes the batch once and hands it to every connection. Idle connections hold no thread
+// (async servlet response). A connection whose previous write is still in flight keeps coalescing into
+// its own pending map; if that grows past max-pending it is dropped and the client is told to resync.
+// Users can subscribe too, but only receive the chat deltas of their own conversation. User streams are
+// capped apart from admin ones, and per user, so customers holding chats open cannot lock the admins out.
+@Component
+public class AdminEventBroadcaster {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${admin.events.max-connections:5000}")
+    private int maxConnections;
+
+    @Value("${admin.events.max-user-connections:20000}")
+    private int maxUserConnections;
+
+    @Value("${admin.events.max-connections-per-user:3}")
+    private int maxConnectionsPerUser;
+
+    @Value("${admin.events.flush-ms:500}")
+    private long flushMillis;
+
+    @Value("${admin.events.max-pending:1000}")
+    private int maxPending;
+
+    @Value("${admin.events.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${admin.events.sender-threads:8}")
+    private int senderThreads;
+
+    @Value("${admin.events.connection-timeout-minutes:60}")
+    private long connectionTimeoutMinutes;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger adminConnections = new AtomicInteger();
+    private final AtomicInteger userConnections = new AtomicInteger();
+    private final Map<Long, Integer> connectionsPerUser = new ConcurrentHashMap<>();
+    private final Object bufferLock = new Object();
+    private Map<String, Map<String, Object>> buffer = new LinkedHashMap<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+
+    private ScheduledExecutorService ticker;
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "admin-events-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "admin-events-send-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(null);
+    }
+
+    public SseEmitter subscribeUser(Long userId) {
+        return subscribe(userId);
+    }
+
+    private SseEmitter subscribe(Long userId) {
+        reserve(userId);
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(connectionTimeoutMinutes));
+        Subscriber subscriber = new Subscriber(emitter, userId);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    // Takes a slot from the caller's pool, or throws if it is full
+    private void reserve(Long userId) {
+        if (userId == null) {
+            if (adminConnections.incrementAndGet() > maxConnections) {
+                adminConnections.decrementAndGet();
+                throw new IllegalStateException("Too many live connections");
+            }
+            return;
+        }
+        if (userConnections.incrementAndGet() > maxUserConnections) {
+            userConnections.decrementAndGet();
+            throw new IllegalStateException("Too many live connections");
+        }
+        if (connectionsPerUser.merge(userId, 1, Integer::sum) > maxConnectionsPerUser) {
+            release(userId);
+            throw new IllegalStateException("Too many open streams for this user");
+        }
+    }
+
+    private void release(Long userId) {
+        if (userId == null) {
+            adminConnections.decrementAndGet();
+            return;
+        }
+        userConnections.decrementAndGet();
+        connectionsPerUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Runs from several callbacks per connection; only the first one frees the slot
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            release(subscriber.userId);
+        }
+    }
+
+    public void publishBooking(Booking booking) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("bookingNumber", booking.getBookingNumber());
+        data.put("status", booking.getStatus());
+        data.put("paymentStatus", booking.getPaymentStatus());
+        data.put("totalPrice", booking.getTotalPrice());
+        publish("booking", booking.getId(), data);
+    }
+
+    // Bulk status moves; clients refetch the row if they need more than the status
+    public void publishBookingStatus(Collection<Long> bookingIds, BookingStatus status) {
+        for (Long bookingId : bookingIds) {
+            publish("booking", bookingId, Map.of("status", status));
+        }
+    }
+
+    public void publishBookingDeleted(Long bookingId) {
+        publish("booking", bookingId, Map.of("deleted", true));
+    }
+
+    public void publishPayment(Payment payment) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("transactionId", payment.getTransactionId());
+        data.put("status", payment.getStatus());
+        data.put("amount", payment.getAmount());
+        data.put("paymentMethod", payment.getPaymentMethod());
+        publish("payment", payment.getId(), data);
+    }
+
+    public void publishFlightStatus(Collection<Long> flightIds, FlightStatus status) {
+        for (Long flightId : flightIds) {
+            publish("flight", flightId, Map.of("status", status));
+        }
+    }
+
+    // Keyed by the conversation's user; clients fetch the messages after the last seq they have
+    public void publishChatMessage(Long userId, ChatMessage message) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("seq", message.getSeq());
+        data.put("senderType", message.getSenderType());
+        publish("chat", userId, data);
+    }
+
+    public void publishChatRead(Long userId, boolean byAdmin, long readSeq) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("readBy", byAdmin ? "ADMIN" : "USER");
+        data.put("readSeq", readSeq);
+        publish("chat", userId, data);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", adminConnections.get());
+        stats.put("maxConnections", maxConnections);
+        stats.put("userConnections", userConnections.get());
+        stats.put("maxUserConnections", maxUserConnections);
+        stats.put("maxConnectionsPerUser", maxConnectionsPerUser);
+        stats.put("published", published.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("batchesSent", batchesSent.get());
+        stats.put("resyncs", resyncs.get());
+        stats.put("disconnects", disconnects.get());
+        return stats;
+    }
+
+    private void publish(String type, Long id, Map<String, Object> data) {
+        if (id == null) {
+            return;
+        }
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("id", id);
+        event.putAll(data);
+        published.incrementAndGet();
+        synchronized (bufferLock) {
+            if (buffer.put(type + ":" + id, event) != null) {
+                coalesced.incrementAndGet();
+            }
+        }
+    }
+
+    private void tick() {
+        Map<String, Map<String, Object>> batch;
+        synchronized (bufferLock) {
+            batch = buffer;
+            buffer = new LinkedHashMap<>();
+        }
+        try {
+            String json = batch.isEmpty() ? null : objectMapper.writeValueAsString(batch.values());
+            long now = System.currentTimeMillis();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.userId == null) {
+                    subscriber.deliver(batch, json, now);
+                    continue;
+                }
+                String key = "chat:" + subscriber.userId;
+                Map<String, Object> own = batch.get(key);
+                if (own == null) {
+                    subscriber.deliver(Map.of(), null, now);
+                } else {
+                    subscriber.deliver(Map.of(key, own), objectMapper.writeValueAsString(List.of(own)), now);
+                }
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Keep ticking; a batch that cannot be serialized is dropped and clients resync on their own
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        // Null for admins, who get every delta
+        private final Long userId;
+        // Deltas that arrived while a write was in flight; guarded by this
+        private final Map<String, Map<String, Object>> pending = new LinkedHashMap<>();
+        private boolean sending;
+        private boolean resync;
+        private long lastSentMillis = System.currentTimeMillis();
+
+        Subscriber(SseEmitter emitter, Long userId) {
+            this.emitter = emitter;
+            this.userId = userId;
+        }
+
+        void deliver(Map<String, Map<String, Object>> batch, String json, long now) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (this) {
+                if (sending) {
+                    // Slow consumer: merge into its own backlog instead of queueing another write
+                    if (!resync) {
+                        pending.putAll(batch);
+                        if (pending.size() > maxPending) {
+                            pending.clear();
+                            resync = true;
+                            resyncs.incrementAndGet();
+                        }
+                    }
+                    return;
+                }
+                if (json != null) {
+                    event = SseEmitter.event().name("deltas").data(json, MediaType.APPLICATION_JSON);
+                } else if (now - lastSentMillis >= TimeUnit.SECONDS.toMillis(heartbeatSeconds)) {
+                    event = SseEmitter.event().comment("keepalive");
+                } else {
+                    return;
+                }
+                sending = true;
+            }
+            senders.execute(() -> send(event));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            SseEmitter.SseEventBuilder next = event;
+            while (next != null) {
+                try {
+                    emitter.send(next);
+                    batchesSent.incrementAndGet();
+                } catch (IOException | IllegalStateException e) {
+                    disconnects.incrementAndGet();
+                    unsubscribe(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+                synchronized (this) {
+                    lastSentMillis = System.currentTimeMillis();
+                    next = drainPending();
+                    if (next == null) {
+                        sending = false;
+                    }
+                }
+            }
+        }
+
+        // Caller holds the monitor
+        private SseEmitter.SseEventBuilder drainPending() {
+            if (resync) {
+                resync = false;
+                return SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON);
+            }
+            if (pending.isEmpty()) {
+                return null;
+            }
+            List<Map<String, Object>> events = new ArrayList<>(pending.values());
+            pending.clear();
+            try {
+                return SseEmitter.event().name("deltas").data(objectMapper.writeValueAsString(events), MediaType.APPLICATION_JSON);
+            } catch (JsonProcessingException e) {
+                return SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Airport;
+import com.prm.flightbooking.repository.AirportRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Spatial index over Airport.latitude/longitude using fixed one-degree grid buckets.
+// A radius query only visits the cells overlapping its bounding box, then filters by great-circle distance.
+@Component
+public class AirportGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double CELL_DEGREES = 1.0;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    private final Map<Long, List<GeoPoint>> cells = new HashMap<>();
+    private final Map<Long, GeoPoint> points = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        List<Airport> all = airportRepository.findAll();
+        synchronized (this) {
+            cells.clear();
+            points.clear();
+            all.forEach(this::add);
+        }
+    }
+
+    public synchronized void put(Airport airport) {
+        if (airport.getId() == null) {
+            return;
+        }
+        remove(airport.getId());
+        add(airport);
+    }
+
+    public synchronized void remove(Long airportId) {
+        GeoPoint previous = points.remove(airportId);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(cellOf(previous.latitude), longitudeCellOf(previous.longitude));
+        List<GeoPoint> cell = cells.get(key);
+        if (cell != null) {
+            cell.removeIf(p -> p.airportId == airportId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    // Airports within radiusKm of the point, nearest first
+    public synchronized List<Nearby> findWithinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        List<Nearby> found = new ArrayList<>();
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        int minLatCell = cellOf(Math.max(-90, latitude - latDelta));
+        int maxLatCell = cellOf(Math.min(90, latitude + latDelta));
+
+        double maxAbsLat = Math.min(90, Math.abs(latitude) + latDelta);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        int lonCells = (int) Math.round(360 / CELL_DEGREES);
+        int minLonCell = cellOf(-180);
+        int maxLonCell = minLonCell + lonCells - 1;
+        if (cos > 1e-6) {
+            double lonDelta = radiusKm / (KM_PER_DEGREE * cos);
+            if (cellOf(longitude + lonDelta) - cellOf(longitude - lonDelta) + 1 < lonCells) {
+                minLonCell = cellOf(longitude - lonDelta);
+                maxLonCell = cellOf(longitude + lonDelta);
+            }
+        }
+
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                List<GeoPoint> cell = cells.get(cellKey(latCell, wrapLongitudeCell(lonCell)));
+                if (cell == null) {
+                    continue;
+                }
+                for (GeoPoint point : cell) {
+                    double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+                    if (distance <= radiusKm) {
+                        found.add(new Nearby(point.airportId, distance));
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingDouble(Nearby::distanceKm));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void add(Airport airport) {
+        if (airport.getLatitude() == null || airport.getLongitude() == null) {
+            return;
+        }
+        GeoPoint point = new GeoPoint(airport.getId(), airport.getLatitude(), airport.getLongitude());
+        points.put(point.airportId, point);
+        cells.computeIfAbsent(cellKey(cellOf(point.latitude), longitudeCellOf(point.longitude)), k -> new ArrayList<>()).add(point);
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static int longitudeCellOf(double longitude) {
+        return wrapLongitudeCell(cellOf(longitude));
+    }
+
+    // Folds longitude cells into [-180, 180) so queries can cross the antimeridian
+    private static int wrapLongitudeCell(int lonCell) {
+        int lonCells = (int) Math.round(360 / CELL_DEGREES);
+        return Math.floorMod(lonCell - cellOf(-180), lonCells) + cellOf(-180);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    public record Nearby(long airportId, double distanceKm) {}
+
+    private static final class GeoPoint {
+        final long airportId;
+        final double latitude;
+        final double longitude;
+
+        GeoPoint(long airportId, double latitude, double longitude) {
+            this.airportId = airportId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Airport;
+import com.prm.flightbooking.repository.AirportRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// Autocomplete index over airport code, name and city. Terms are accent-folded so "da nang" finds "Đà Nẵng".
+// Word and whole-field prefixes live in a sorted map (prefix scans are sub-map views); trigrams catch infix matches.
+@Component
+public class AirportSearchIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private static final int FIELD_CODE = 0;
+    private static final int FIELD_CITY = 1;
+    private static final int FIELD_NAME = 2;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    private final NavigableMap<String, Map<Long, Integer>> terms = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+    private final Map<Long, IndexedAirport> airports = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        List<Airport> all = airportRepository.findAll();
+        synchronized (this) {
+            terms.clear();
+            trigrams.clear();
+            airports.clear();
+            all.forEach(this::add);
+        }
+    }
+
+    public synchronized void put(Airport airport) {
+        if (airport.getId() == null) {
+            return;
+        }
+        remove(airport.getId());
+        add(airport);
+    }
+
+    public synchronized void remove(Long airportId) {
+        IndexedAirport previous = airports.remove(airportId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            Map<Long, Integer> postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(airportId);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+        for (String gram : previous.trigrams) {
+            Set<Long> postings = trigrams.get(gram);
+            if (postings != null) {
+                postings.remove(airportId);
+                if (postings.isEmpty()) {
+                    trigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Ranked: exact code, code prefix, then exact/prefix city and name matches, then infix matches
+    public synchronized List<Airport> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry : terms.subMap(q, true, q + Character.MAX_VALUE, false).entrySet()) {
+            boolean exact = entry.getKey().equals(q);
+            entry.getValue().forEach((id, field) -> {
+                int score = field == FIELD_CODE && exact ? -1 : field * 2 + (exact ? 0 : 1);
+                scores.merge(id, score, Math::min);
+            });
+        }
+
+        if (q.length() >= 3) {
+            Set<Long> infix = null;
+            for (String gram : trigramsOf(q)) {
+                Set<Long> postings = trigrams.getOrDefault(gram, Set.of());
+                if (infix == null) {
+                    infix = new HashSet<>(postings);
+                } else {
+                    infix.retainAll(postings);
+                }
+                if (infix.isEmpty()) {
+                    break;
+                }
+            }
+            if (infix != null) {
+                for (Long id : infix) {
+                    if (!scores.containsKey(id) && airports.get(id).searchText.contains(q)) {
+                        scores.put(id, 10);
+                    }
+                }
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue()
+                        .thenComparing(e -> airports.get(e.getKey()).airport.getName(),
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .map(e -> airports.get(e.getKey()).airport)
+                .toList();
+    }
+
+    private void add(Airport airport) {
+        Set<String> airportTerms = new LinkedHashSet<>();
+        index(airportTerms, airport.getId(), normalize(airport.getCode()), FIELD_CODE);
+        index(airportTerms, airport.getId(), normalize(airport.getCity()), FIELD_CITY);
+        index(airportTerms, airport.getId(), normalize(airport.getName()), FIELD_NAME);
+
+        String searchText = String.join(" ", normalize(airport.getCode()), normalize(airport.getCity()), normalize(airport.getName()));
+        Set<String> airportTrigrams = trigramsOf(searchText);
+        for (String gram : airportTrigrams) {
+            trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(airport.getId());
+        }
+        airports.put(airport.getId(), new IndexedAirport(snapshot(airport), airportTerms, airportTrigrams, searchText));
+    }
+
+    // Indexes the whole field and every word in it, so both "ho chi" and "minh" prefix-match "Ho Chi Minh"
+    private void index(Set<String> airportTerms, Long airportId, String text, int field) {
+        if (text.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        keys.add(text);
+        for (String word : text.split(" ")) {
+            keys.add(word);
+        }
+        for (String key : keys) {
+            terms.computeIfAbsent(key, k -> new HashMap<>()).merge(airportId, field, Math::min);
+            airportTerms.add(key);
+        }
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = text.replace('\u0111', 'd').replace('\u0110', 'D');
+        folded = COMBINING_MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(folded.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    // Detached copy so callers never touch the lazy collections of a managed entity
+    private static Airport snapshot(Airport source) {
+        Airport copy = new Airport(source.getName(), source.getCode(), source.getCity(), source.getCountry());
+        copy.setId(source.getId());
+        copy.setAddress(source.getAddress());
+        copy.setLatitude(source.getLatitude());
+        copy.setLongitude(source.getLongitude());
+        return copy;
+    }
+
+    private static final class IndexedAirport {
+        final Airport airport;
+        final Set<String> terms;
+        final Set<String> trigrams;
+        final String searchText;
+
+        IndexedAirport(Airport airport, Set<String> terms, Set<String> trigrams, String searchText) {
+            this.airport = airport;
+            this.terms = terms;
+            this.trigrams = trigrams;
+            this.searchText = searchText;
+        }
+    }
+}
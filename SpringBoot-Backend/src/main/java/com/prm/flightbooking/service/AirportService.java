@@ -0,0 +1,78 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Airport;
+import com.prm.flightbooking.repository.AirportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class AirportService {
+    
+    @Autowired
+    private AirportRepository airportRepository;
+    
+    @Autowired
+    private AirportSearchIndex airportSearchIndex;
+    
+    @Autowired
+    private AirportGeoIndex airportGeoIndex;
+    
+    public List<Airport> findAll() {
+        return airportRepository.findAll();
+    }
+    
+    public Optional<Airport> findById(Long id) {
+        return airportRepository.findById(id);
+    }
+    
+    public List<Airport> findAllById(List<Long> ids) {
+        return airportRepository.findAllById(ids);
+    }
+    
+    public Optional<Airport> findByCode(String code) {
+        return airportRepository.findByCode(code);
+    }
+    
+    public boolean existsByCode(String code) {
+        return airportRepository.findByCode(code).isPresent();
+    }
+    
+    public Airport createAirport(Airport airport) {
+        Airport saved = airportRepository.save(airport);
+        airportSearchIndex.put(saved);
+        airportGeoIndex.put(saved);
+        return saved;
+    }
+    
+    public Airport updateAirport(Airport airport) {
+        Airport saved = airportRepository.save(airport);
+        airportSearchIndex.put(saved);
+        airportGeoIndex.put(saved);
+        return saved;
+    }
+    
+    public void deleteAirport(Long id) {
+        airportRepository.deleteById(id);
+        airportSearchIndex.remove(id);
+        airportGeoIndex.remove(id);
+    }
+    
+    public List<Airport> searchAirports(String term, int limit) {
+        return airportSearchIndex.search(term, limit);
+    }
+    
+    public List<AirportGeoIndex.Nearby> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        return airportGeoIndex.findWithinRadius(latitude, longitude, radiusKm, limit);
+    }
+    
+    public List<String> findAllCities() {
+        return airportRepository.findAllCities();
+    }
+    
+    public List<String> findAllCountries() {
+        return airportRepository.findAllCountries();
+    }
+}
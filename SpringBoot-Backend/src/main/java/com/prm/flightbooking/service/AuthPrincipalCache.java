@@ -0,0 +1,129 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Bearer tokens whose signature has already been checked, mapped to the user they authenticate.
+// Keyed by a SHA-256 of the token so raw tokens are not kept around; an entry lives until the token
+// expires or the TTL runs out, whichever comes first. Evicted for a user whose role or password changes.
+// Every authenticated request reads this, so reads are lock-free and the size bound is coarse: when full,
+// expired entries are purged and, failing that, the whole cache is dropped and refills from misses.
+@Component
+public class AuthPrincipalCache {
+
+    private final int maximumSize;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AuthPrincipalCache(@Value("${security.jwt.principal-cache.max-entries:10000}") int maxEntries,
+                              @Value("${security.jwt.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maximumSize = Math.max(1, maxEntries);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public User get(String tokenHash) {
+        Entry entry = entries.get(tokenHash);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.user;
+        }
+        if (entry != null && entries.remove(tokenHash, entry)) {
+            expirations.increment();
+        }
+        misses.increment();
+        return null;
+    }
+
+    // The loader verifies the token and loads the user, returning null if either fails
+    public User load(String tokenHash, Supplier<Verified> loader) {
+        // Skip the put if a user was evicted while loading, so a stale principal is never cached
+        long before = generation.get();
+        Verified verified = loader.get();
+        if (verified == null) {
+            return null;
+        }
+        long expiresAt = Math.min(verified.expiresAtMillis(), System.currentTimeMillis() + ttlMillis);
+        synchronized (generation) {
+            if (generation.get() == before) {
+                if (entries.size() >= maximumSize) {
+                    makeRoom();
+                }
+                entries.put(tokenHash, new Entry(verified.user(), expiresAt));
+            }
+        }
+        return verified.user();
+    }
+
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (generation) {
+            generation.incrementAndGet();
+            entries.values().removeIf(entry -> userId.equals(entry.user.getId()));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maximumSize", maximumSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        return stats;
+    }
+
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Caller holds the generation monitor, so only one thread sweeps at a time
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        int purged = before - entries.size();
+        if (purged > 0) {
+            expirations.add(purged);
+        }
+        if (entries.size() >= maximumSize) {
+            evictions.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+
+    public record Verified(User user, long expiresAtMillis) {
+    }
+}
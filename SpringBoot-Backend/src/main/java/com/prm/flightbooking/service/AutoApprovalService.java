@@ -0,0 +1,322 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Booking.BookingStatus;
+import com.prm.flightbooking.entity.Booking.PaymentStatus;
+import com.prm.flightbooking.entity.Flight.FlightStatus;
+import com.prm.flightbooking.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Walks PENDING bookings in keyset chunks, evaluates the approval rules for each chunk in parallel on a
+// fork-join pool, then writes the chunk back with one guarded UPDATE for approvals and one set-based
+// cancellation for rejections. Bookings the rules cannot decide stay PENDING for a human.
+@Service
+public class AutoApprovalService {
+
+    private static final int EVALUATION_THRESHOLD = 256;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingExpiryScheduler bookingExpiryScheduler;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+
+    @Value("${auto-approval.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${auto-approval.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalApproved = new AtomicLong();
+    private final AtomicLong totalRejected = new AtomicLong();
+    private final AtomicLong totalSkipped = new AtomicLong();
+    private final AtomicLong currentProcessed = new AtomicLong();
+    private final AtomicLong currentApproved = new AtomicLong();
+    private final AtomicLong currentRejected = new AtomicLong();
+    private final Map<String, AtomicLong> reasons = new ConcurrentHashMap<>();
+
+    private ForkJoinPool pool;
+    private volatile long currentStartedMillis;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile long lastRunDurationMillis;
+    private volatile long lastRunProcessed;
+    private volatile String lastError;
+
+    // Today's counters; swapped as a unit when the date changes
+    private volatile DayCounts today = new DayCounts(LocalDate.now());
+
+    @PostConstruct
+    public void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    // Returns null without doing anything if a run is already in progress
+    public Map<String, Object> process() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        currentStartedMillis = System.currentTimeMillis();
+        currentProcessed.set(0);
+        currentApproved.set(0);
+        currentRejected.set(0);
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Long afterId = 0L;
+            List<Object[]> rows;
+            do {
+                rows = bookingRepository.findPendingApprovalRows(afterId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                processChunk(rows, now);
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            } while (rows.size() == chunkSize);
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+        } finally {
+            runs.incrementAndGet();
+            lastRunFinishedAt = LocalDateTime.now();
+            lastRunDurationMillis = System.currentTimeMillis() - currentStartedMillis;
+            lastRunProcessed = currentProcessed.get();
+            running.set(false);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("processed", lastRunProcessed);
+        result.put("approved", currentApproved.get());
+        result.put("rejected", currentRejected.get());
+        result.put("durationMillis", lastRunDurationMillis);
+        result.put("error", lastError);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        DayCounts day = currentDay();
+        long approved = day.approved.get();
+        long rejected = day.rejected.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("todayApproved", approved);
+        stats.put("todayRejected", rejected);
+        stats.put("todayApprovalRate", approved + rejected == 0 ? 0.0 : approved * 100.0 / (approved + rejected));
+        stats.put("running", running.get());
+        if (running.get()) {
+            long elapsed = Math.max(1, System.currentTimeMillis() - currentStartedMillis);
+            stats.put("currentProcessed", currentProcessed.get());
+            stats.put("currentApproved", currentApproved.get());
+            stats.put("currentRejected", currentRejected.get());
+            stats.put("currentThroughputPerSecond", currentProcessed.get() * 1000.0 / elapsed);
+        }
+        stats.put("lastRunFinishedAt", lastRunFinishedAt);
+        stats.put("lastRunDurationMillis", lastRunDurationMillis);
+        stats.put("lastRunProcessed", lastRunProcessed);
+        stats.put("lastRunThroughputPerSecond",
+                lastRunDurationMillis > 0 ? lastRunProcessed * 1000.0 / lastRunDurationMillis : 0.0);
+        stats.put("lastError", lastError);
+        stats.put("runs", runs.get());
+        stats.put("totalApproved", totalApproved.get());
+        stats.put("totalRejected", totalRejected.get());
+        stats.put("totalSkipped", totalSkipped.get());
+        Map<String, Long> reasonCounts = new LinkedHashMap<>();
+        reasons.forEach((reason, count) -> reasonCounts.put(reason, count.get()));
+        stats.put("reasons", reasonCounts);
+        return stats;
+    }
+
+    private void processChunk(List<Object[]> rows, LocalDateTime now) {
+        Verdict[] verdicts = new Verdict[rows.size()];
+        pool.invoke(new Evaluate(rows, verdicts, now, 0, rows.size()));
+
+        List<Long> approve = new ArrayList<>();
+        List<Long> reject = new ArrayList<>();
+        for (int i = 0; i < verdicts.length; i++) {
+            Long id = (Long) rows.get(i)[0];
+            if (verdicts[i] == Verdict.APPROVE) {
+                approve.add(id);
+            } else if (verdicts[i].rejects) {
+                reject.add(id);
+            }
+            reasons.computeIfAbsent(verdicts[i].name(), key -> new AtomicLong()).incrementAndGet();
+        }
+
+        // Whole seconds, so the updatedAt written reads back unchanged on any column precision
+        LocalDateTime confirmedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int approved = approve.isEmpty() ? 0 : bookingRepository.confirmPaidByIdIn(approve, confirmedAt);
+        int rejected = reject.isEmpty() ? 0 : bookingExpiryScheduler.cancelPending(reject);
+        dashboardCounters.onBookingsStatusChanged(BookingStatus.PENDING, BookingStatus.CONFIRMED, approved);
+        if (approved > 0) {
+            // The guard may have skipped some; only the ones it confirmed are counted and announced
+            List<Long> confirmed = approved == approve.size() ? approve : bookingRepository.findIdsConfirmedSince(approve, confirmedAt);
+            for (Long id : confirmed) {
+                bookingExpiryScheduler.untrack(id);
+            }
+            popularityTracker.onBookingsConfirmed(confirmed);
+            adminEvents.publishBookingStatus(confirmed, BookingStatus.CONFIRMED);
+        }
+
+        DayCounts day = currentDay();
+        day.approved.addAndGet(approved);
+        day.rejected.addAndGet(rejected);
+        totalApproved.addAndGet(approved);
+        totalRejected.addAndGet(rejected);
+        // Anything the guarded writes did not touch changed underneath us and stays for the next run
+        totalSkipped.addAndGet(rows.size() - approved - rejected);
+        currentApproved.addAndGet(approved);
+        currentRejected.addAndGet(rejected);
+        currentProcessed.addAndGet(rows.size());
+    }
+
+    private DayCounts currentDay() {
+        DayCounts day = today;
+        LocalDate date = LocalDate.now();
+        if (!day.date.equals(date)) {
+            synchronized (this) {
+                if (!today.date.equals(date)) {
+                    today = new DayCounts(date);
+                }
+                day = today;
+            }
+        }
+        return day;
+    }
+
+    // Row layout is BookingRepository.findPendingApprovalRows
+    static Verdict evaluate(Object[] row, LocalDateTime now) {
+        PaymentStatus paymentStatus = (PaymentStatus) row[1];
+        BigDecimal totalPrice = (BigDecimal) row[2];
+        FlightStatus flightStatus = (FlightStatus) row[3];
+        LocalDateTime departureTime = (LocalDateTime) row[4];
+        BigDecimal amountPaid = row[5] != null ? new BigDecimal(row[5].toString()) : BigDecimal.ZERO;
+
+        // A paid booking on a flight that cannot be flown needs a refund decision, so it goes to a human
+        boolean paid = paymentStatus == PaymentStatus.PAID;
+        if (flightStatus == null) {
+            return paid ? Verdict.SKIP_PAID_FLIGHT_MISSING : Verdict.REJECT_FLIGHT_MISSING;
+        }
+        if (flightStatus == FlightStatus.CANCELLED) {
+            return paid ? Verdict.SKIP_PAID_FLIGHT_CANCELLED : Verdict.REJECT_FLIGHT_CANCELLED;
+        }
+        if (flightStatus == FlightStatus.DEPARTED || flightStatus == FlightStatus.ARRIVED
+                || (departureTime != null && departureTime.isBefore(now))) {
+            return paid ? Verdict.SKIP_PAID_FLIGHT_DEPARTED : Verdict.REJECT_FLIGHT_DEPARTED;
+        }
+        if (flightStatus != FlightStatus.SCHEDULED && flightStatus != FlightStatus.DELAYED) {
+            // Boarding: too late for the rules, a human decides
+            return Verdict.SKIP_FLIGHT_CLOSED;
+        }
+        if (paymentStatus == PaymentStatus.FAILED) {
+            return Verdict.REJECT_PAYMENT_FAILED;
+        }
+        if (paymentStatus == PaymentStatus.REFUNDED) {
+            return Verdict.REJECT_PAYMENT_REFUNDED;
+        }
+        if (paymentStatus != PaymentStatus.PAID) {
+            return Verdict.SKIP_AWAITING_PAYMENT;
+        }
+        if (amountPaid.signum() == 0) {
+            return Verdict.SKIP_PAYMENT_NOT_RECORDED;
+        }
+        if (totalPrice != null && amountPaid.compareTo(totalPrice) < 0) {
+            return Verdict.SKIP_UNDERPAID;
+        }
+        return Verdict.APPROVE;
+    }
+
+    enum Verdict {
+        APPROVE(false),
+        REJECT_FLIGHT_MISSING(true),
+        REJECT_FLIGHT_CANCELLED(true),
+        REJECT_FLIGHT_DEPARTED(true),
+        REJECT_PAYMENT_FAILED(true),
+        REJECT_PAYMENT_REFUNDED(true),
+        SKIP_AWAITING_PAYMENT(false),
+        SKIP_PAYMENT_NOT_RECORDED(false),
+        SKIP_UNDERPAID(false),
+        SKIP_PAID_FLIGHT_MISSING(false),
+        SKIP_PAID_FLIGHT_CANCELLED(false),
+        SKIP_PAID_FLIGHT_DEPARTED(false),
+        SKIP_FLIGHT_CLOSED(false);
+
+        final boolean rejects;
+
+        Verdict(boolean rejects) {
+            this.rejects = rejects;
+        }
+    }
+
+    private static final class Evaluate extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Object[]> rows;
+        private final Verdict[] verdicts;
+        private final LocalDateTime now;
+        private final int from;
+        private final int to;
+
+        Evaluate(List<Object[]> rows, Verdict[] verdicts, LocalDateTime now, int from, int to) {
+            this.rows = rows;
+            this.verdicts = verdicts;
+            this.now = now;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= EVALUATION_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    verdicts[i] = evaluate(rows.get(i), now);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Evaluate(rows, verdicts, now, from, mid), new Evaluate(rows, verdicts, now, mid, to));
+        }
+    }
+
+    private static final class DayCounts {
+
+        private final LocalDate date;
+        private final AtomicLong approved = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        DayCounts(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Booking;
+import com.prm.flightbooking.entity.Booking.BookingStatus;
+import com.prm.flightbooking.entity.Booking.PaymentStatus;
+import com.prm.flightbooking.entity.Seat.SeatClass;
+import com.prm.flightbooking.repository.BookingRepository;
+import com.prm.flightbooking.repository.BookingSeatRepository;
+import com.prm.flightbooking.repository.FlightRepository;
+import com.prm.flightbooking.repository.SeatRepository;
+import com.prm.flightbooking.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Cancels bookings that are still unpaid when their payment window closes. Each pending booking gets a timeout
+// in a hierarchical timing wheel; fired ids are collected and cancelled in batches with set-based updates that
+// also free their seats and return the passengers to the flight's inventory. Pending bookings are loaded once
+// at startup, after which nothing scans the bookings table.
+@Component
+public class BookingExpiryScheduler {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSeatRepository bookingSeatRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatAvailabilityCounters seatAvailabilityCounters;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${booking.payment-timeout-minutes:15}")
+    private long paymentTimeoutMinutes;
+
+    @Value("${booking.expiry.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, TimingWheel.Timeout<Long>> timeouts = new ConcurrentHashMap<>();
+    private final Queue<Long> expired = new ConcurrentLinkedQueue<>();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong seatsReleased = new AtomicLong();
+
+    private TimingWheel<Long> wheel;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        wheel = new TimingWheel<>("booking-expiry", 1000, 256, this::onExpired);
+        for (Object[] row : bookingRepository.findUnpaidPendingDeadlines()) {
+            track((Long) row[0], (LocalDateTime) row[1]);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+    }
+
+    public void track(Booking booking) {
+        if (booking.getId() != null && booking.getStatus() == BookingStatus.PENDING
+                && booking.getPaymentStatus() == PaymentStatus.PENDING) {
+            track(booking.getId(), booking.getBookingDate());
+        }
+    }
+
+    // Called when a booking is paid, confirmed or cancelled through the normal flow
+    public void untrack(Long bookingId) {
+        TimingWheel.Timeout<Long> timeout = timeouts.remove(bookingId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tracked", timeouts.size());
+        stats.put("awaitingCancellation", expired.size());
+        stats.put("cancelled", cancelled.get());
+        stats.put("skipped", skipped.get());
+        stats.put("seatsReleased", seatsReleased.get());
+        stats.put("paymentTimeoutMinutes", paymentTimeoutMinutes);
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.expiry.flush-ms:1000}")
+    public void cancelExpired() {
+        while (!expired.isEmpty()) {
+            List<Long> ids = new ArrayList<>(batchSize);
+            Long id;
+            while (ids.size() < batchSize && (id = expired.poll()) != null) {
+                ids.add(id);
+            }
+            try {
+                cancelBatch(ids);
+            } catch (RuntimeException e) {
+                // Put them back; the next flush retries
+                expired.addAll(ids);
+                return;
+            }
+        }
+    }
+
+    private void track(Long bookingId, LocalDateTime bookingDate) {
+        LocalDateTime deadline = (bookingDate != null ? bookingDate : LocalDateTime.now()).plusMinutes(paymentTimeoutMinutes);
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), deadline).toMillis());
+        TimingWheel.Timeout<Long> previous = timeouts.put(bookingId, wheel.schedule(bookingId, delay));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // Runs on the wheel thread, so it only queues the id
+    private void onExpired(Long bookingId) {
+        timeouts.remove(bookingId);
+        expired.add(bookingId);
+    }
+
+    // Cancels whichever of the ids are still PENDING (any payment status) and gives their seats back.
+    // Used by auto-approval for rejected bookings.
+    public int cancelPending(List<Long> ids) {
+        int done = cancel(ids, bookingRepository::lockPendingIds);
+        for (Long id : ids) {
+            untrack(id);
+        }
+        return done;
+    }
+
+    private void cancelBatch(List<Long> ids) {
+        int done = cancel(ids, bookingRepository::lockUnpaidPendingIds);
+        cancelled.addAndGet(done);
+        skipped.addAndGet(ids.size() - done);
+    }
+
+    private int cancel(List<Long> ids, Function<List<Long>, List<Long>> lock) {
+        Map<Long, Integer> releasedPerFlight = new LinkedHashMap<>();
+        List<Object[]> releasedSeats = new ArrayList<>();
+        List<Long> cancelledIds = new ArrayList<>();
+        Integer cancelledCount = transactionTemplate.execute(status -> {
+            // Row locks keep a payment that lands now from racing the cancellation
+            List<Long> locked = lock.apply(ids);
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            releasedSeats.addAll(bookingSeatRepository.countOccupiedSeatsByBookingIdIn(locked));
+            List<Object[]> passengers = bookingRepository.sumPassengersByFlightForIdIn(locked);
+            // Flights before seats, the same order the booking pipeline takes them in, so the two cannot deadlock
+            List<Long> flightIds = new ArrayList<>();
+            for (Object[] row : passengers) {
+                if (row[0] != null) {
+                    flightIds.add((Long) row[0]);
+                }
+            }
+            if (!flightIds.isEmpty()) {
+                flightRepository.lockByIdIn(flightIds);
+            }
+            bookingRepository.cancelByIdIn(locked, now);
+            seatRepository.releaseSeatsOfBookings(locked, now);
+            cancelledIds.addAll(locked);
+            for (Object[] row : passengers) {
+                Long flightId = (Long) row[0];
+                int count = row[1] != null ? ((Number) row[1]).intValue() : 0;
+                if (flightId != null && count > 0 && flightRepository.incrementAvailableSeats(flightId, count, now) > 0) {
+                    releasedPerFlight.put(flightId, count);
+                }
+            }
+            return locked.size();
+        });
+
+        int done = cancelledCount != null ? cancelledCount : 0;
+        dashboardCounters.onBookingsStatusChanged(BookingStatus.PENDING, BookingStatus.CANCELLED, done);
+        adminEvents.publishBookingStatus(cancelledIds, BookingStatus.CANCELLED);
+        for (Object[] row : releasedSeats) {
+            int count = ((Number) row[2]).intValue();
+            seatAvailabilityCounters.onSeatsReleased((Long) row[0], (SeatClass) row[1], count);
+            seatsReleased.addAndGet(count);
+        }
+        for (Long flightId : releasedPerFlight.keySet()) {
+            flightService.refreshAvailability(flightId);
+        }
+        return done;
+    }
+}
@@ -0,0 +1,481 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.dto.BookingRequest;
+import com.prm.flightbooking.dto.PassengerRequest;
+import com.prm.flightbooking.entity.Booking;
+import com.prm.flightbooking.entity.BookingSeat;
+import com.prm.flightbooking.entity.Flight;
+import com.prm.flightbooking.entity.Flight.FlightStatus;
+import com.prm.flightbooking.entity.Seat;
+import com.prm.flightbooking.entity.Seat.SeatClass;
+import com.prm.flightbooking.entity.Seat.SeatStatus;
+import com.prm.flightbooking.repository.BookingRepository;
+import com.prm.flightbooking.repository.BookingSeatRepository;
+import com.prm.flightbooking.repository.FlightRepository;
+import com.prm.flightbooking.repository.SeatRepository;
+import com.prm.flightbooking.repository.UserRepository;
+import com.prm.flightbooking.util.SnowflakeIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Writes bookings in micro-batches. Requests are queued in a bounded buffer and a single writer drains
+// whatever has accumulated while the previous batch was committing, so many bookings share one commit.
+// The batch locks the flight and seat rows it needs and checks every request before writing, so a sold-out
+// flight or a taken seat fails only that request. If the batch commit itself fails, the batch is retried
+// one request at a time.
+// With booking.pipeline.enabled=false (the default) requests are written immediately as batches of one.
+@Component
+public class BookingPipeline {
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingSeatRepository bookingSeatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SeatAvailabilityCounters seatAvailabilityCounters;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Autowired
+    private BookingExpiryScheduler bookingExpiryScheduler;
+
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${booking.pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${booking.pipeline.capacity:4096}")
+    private int capacity;
+
+    @Value("${booking.pipeline.max-batch:256}")
+    private int maxBatch;
+
+    @Value("${booking.max-passengers:9}")
+    private int maxPassengers;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedRequests = new AtomicLong();
+    private final AtomicLong largestBatch = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    private BlockingQueue<BookingCommand> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private TransactionTemplate batchTransaction;
+
+    @PostConstruct
+    public void start() {
+        batchTransaction = new TransactionTemplate(transactionManager);
+        if (enabled) {
+            queue = new ArrayBlockingQueue<>(capacity);
+            running = true;
+            writer = new Thread(this::drainLoop, "booking-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    public CompletableFuture<Booking> submit(Long userId, BookingRequest request) {
+        BookingCommand command = new BookingCommand(userId, request);
+        if (request.getHoldId() != null) {
+            claimHold(command, request.getHoldId());
+        }
+        submitted.incrementAndGet();
+        if (!enabled) {
+            process(List.of(command));
+            return command.result;
+        }
+        if (!running || !queue.offer(command)) {
+            rejected.incrementAndGet();
+            releaseHold(command, false);
+            throw new RuntimeException("Booking service is busy, please try again");
+        }
+        return command.result;
+    }
+
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queueDepth", queue != null ? queue.size() : 0);
+        stats.put("capacity", enabled ? capacity : 0);
+        stats.put("submitted", submitted.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("batches", batchCount);
+        stats.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) batchedRequests.get() / batchCount);
+        stats.put("largestBatch", largestBatch.get());
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        return stats;
+    }
+
+    private void drainLoop() {
+        List<BookingCommand> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                BookingCommand first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                // Commands already answered were committed; only the rest failed
+                for (BookingCommand command : batch) {
+                    if (!command.result.isDone()) {
+                        releaseHold(command, false);
+                        command.result.completeExceptionally(e);
+                    }
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+        BookingCommand left;
+        while ((left = queue.poll()) != null) {
+            releaseHold(left, false);
+            left.result.completeExceptionally(new RuntimeException("Booking service is shutting down"));
+        }
+    }
+
+    private void process(List<BookingCommand> batch) {
+        batches.incrementAndGet();
+        batchedRequests.addAndGet(batch.size());
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        for (BookingCommand command : batch) {
+            command.reset();
+        }
+        try {
+            batchTransaction.executeWithoutResult(status -> writeBatch(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).failure = e;
+            } else {
+                fallbacks.incrementAndGet();
+                for (BookingCommand command : batch) {
+                    process(List.of(command));
+                }
+                return;
+            }
+        }
+        publish(batch);
+    }
+
+    private void writeBatch(List<BookingCommand> batch) {
+        // Lock every flight and seat row the batch touches, one query per table, and check all commands
+        // against that snapshot before writing anything. A command that fails a check is simply left out,
+        // so nothing has to be rolled back to a savepoint.
+        Set<Long> flightIds = new HashSet<>();
+        Set<Long> seatIds = new HashSet<>();
+        for (BookingCommand command : batch) {
+            flightIds.add(command.flightId);
+            seatIds.addAll(command.seatIds);
+        }
+        Map<Long, FlightInfo> flights = new HashMap<>();
+        Map<Long, Integer> remaining = new HashMap<>();
+        for (Flight flight : flightRepository.lockByIdIn(flightIds)) {
+            flights.put(flight.getId(), new FlightInfo(flight.getStatus(), flight.getBasePrice()));
+            remaining.put(flight.getId(), flight.getAvailableSeats() != null ? flight.getAvailableSeats() : 0);
+        }
+        Map<Long, SeatInfo> seats = new HashMap<>();
+        for (Seat seat : seatIds.isEmpty() ? List.<Seat>of() : seatRepository.lockByIdIn(seatIds)) {
+            seats.put(seat.getId(), new SeatInfo(seat.getFlight() != null ? seat.getFlight().getId() : null,
+                    seat.getSeatClass(), seat.getPrice(), seat.getStatus()));
+        }
+        // Seats on hold can only be sold through the hold that has them
+        Map<Long, Set<Long>> heldSeats = new HashMap<>();
+        for (BookingCommand command : batch) {
+            if (!command.seatIds.isEmpty()) {
+                heldSeats.computeIfAbsent(command.flightId, seatHoldService::findHeldSeatIds);
+            }
+        }
+        // Rows are [flightId, seatCount, availableSeatCount]
+        Set<Long> seatMapped = new HashSet<>();
+        for (Object[] row : seatRepository.countSeatsByFlightIdIn(flightIds)) {
+            if (row[0] != null && ((Number) row[1]).longValue() > 0) {
+                seatMapped.add((Long) row[0]);
+            }
+        }
+
+        List<BookingCommand> accepted = new ArrayList<>();
+        Set<Long> taken = new HashSet<>();
+        Map<Long, Integer> passengersPerFlight = new LinkedHashMap<>();
+        for (BookingCommand command : batch) {
+            try {
+                price(command, flights, seats);
+                check(command, seats, heldSeats, seatMapped, taken, remaining);
+            } catch (RuntimeException e) {
+                command.failure = e;
+                continue;
+            }
+            taken.addAll(command.seatIds);
+            remaining.merge(command.flightId, -command.passengers.size(), Integer::sum);
+            passengersPerFlight.merge(command.flightId, command.passengers.size(), Integer::sum);
+            accepted.add(command);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // The rows are locked and were checked above, so these guarded updates cannot miss; if one does,
+        // the whole batch rolls back and is retried one request at a time
+        LocalDateTime now = LocalDateTime.now();
+        if (!taken.isEmpty()
+                && seatRepository.updateStatusIfCurrent(taken, SeatStatus.AVAILABLE, SeatStatus.OCCUPIED, now) != taken.size()) {
+            throw new IllegalStateException("Seat inventory changed during the batch");
+        }
+        for (Map.Entry<Long, Integer> entry : passengersPerFlight.entrySet()) {
+            if (flightRepository.decrementAvailableSeats(entry.getKey(), entry.getValue(), now) == 0) {
+                throw new IllegalStateException("Flight inventory changed during the batch");
+            }
+        }
+
+        // Inserts go last: the guarded updates above clear the persistence context
+        List<Booking> bookings = new ArrayList<>();
+        List<BookingSeat> bookingSeats = new ArrayList<>();
+        for (BookingCommand command : accepted) {
+            Booking booking = new Booking(idGenerator.nextCode("BK"), userRepository.getReferenceById(command.userId),
+                    flightRepository.getReferenceById(command.flightId), command.passengers.size(), command.totalPrice);
+            List<BookingSeat> seatsOfBooking = new ArrayList<>();
+            for (PassengerRequest passenger : command.passengers) {
+                Seat seat = passenger.getSeatId() != null ? seatRepository.getReferenceById(passenger.getSeatId()) : null;
+                BookingSeat bookingSeat = new BookingSeat(booking, seat, passenger.getPassengerName());
+                bookingSeat.setPassengerId(passenger.getPassengerId());
+                bookingSeat.setPassengerEmail(passenger.getPassengerEmail());
+                bookingSeat.setPassengerPhone(passenger.getPassengerPhone());
+                seatsOfBooking.add(bookingSeat);
+            }
+            booking.setBookingSeats(seatsOfBooking);
+            bookings.add(booking);
+            bookingSeats.addAll(seatsOfBooking);
+            command.booking = booking;
+        }
+        bookingRepository.saveAll(bookings);
+        bookingSeatRepository.saveAll(bookingSeats);
+    }
+
+    private void price(BookingCommand command, Map<Long, FlightInfo> flights, Map<Long, SeatInfo> seats) {
+        FlightInfo flight = flights.get(command.flightId);
+        if (flight == null) {
+            throw new RuntimeException("Flight not found");
+        }
+        if (flight.status != FlightStatus.SCHEDULED && flight.status != FlightStatus.DELAYED) {
+            throw new RuntimeException("Flight is not open for booking");
+        }
+        if (command.seatIds.isEmpty()) {
+            command.totalPrice = flight.basePrice.multiply(BigDecimal.valueOf(command.passengers.size()));
+            return;
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (Long seatId : command.seatIds) {
+            SeatInfo seat = seats.get(seatId);
+            if (seat == null || !command.flightId.equals(seat.flightId)) {
+                throw new RuntimeException("Seat " + seatId + " does not belong to this flight");
+            }
+            total = total.add(seat.price != null ? seat.price : flight.basePrice);
+            command.seatClasses.add(seat.seatClass);
+        }
+        command.totalPrice = total;
+    }
+
+    // Checks against the locked rows minus what earlier commands of the same batch already took
+    private void check(BookingCommand command, Map<Long, SeatInfo> seats, Map<Long, Set<Long>> heldSeats,
+                       Set<Long> seatMapped, Set<Long> taken, Map<Long, Integer> remaining) {
+        // On a flight with a seat map the seat rows are the inventory (the reconciler recomputes availableSeats
+        // from them), so a booking without seats there would be given back and the flight oversold
+        if (command.seatIds.isEmpty() && seatMapped.contains(command.flightId)) {
+            throw new RuntimeException("Choose a seat for every passenger on this flight");
+        }
+        for (Long seatId : command.seatIds) {
+            if (seats.get(seatId).status != SeatStatus.AVAILABLE || taken.contains(seatId)) {
+                throw new RuntimeException("One or more selected seats are no longer available");
+            }
+            if (command.hold == null && heldSeats.getOrDefault(command.flightId, Set.of()).contains(seatId)) {
+                throw new RuntimeException("One or more selected seats are held by another customer");
+            }
+        }
+        if (remaining.getOrDefault(command.flightId, 0) < command.passengers.size()) {
+            throw new RuntimeException("Not enough seats available on this flight");
+        }
+    }
+
+    // The hold stays claimed until the batch outcome is known, so it cannot expire under a running write
+    private void claimHold(BookingCommand command, String holdId) {
+        SeatHoldService.Hold hold = seatHoldService.claimHold(holdId, command.userId);
+        if (!hold.getFlightId().equals(command.flightId) || !Set.copyOf(hold.getSeatIds()).equals(Set.copyOf(command.seatIds))) {
+            seatHoldService.releaseClaim(hold);
+            throw new RuntimeException("Passengers must be seated exactly in the held seats");
+        }
+        command.hold = hold;
+    }
+
+    private void releaseHold(BookingCommand command, boolean sold) {
+        if (command.hold == null) {
+            return;
+        }
+        if (sold) {
+            seatHoldService.completeClaim(command.hold);
+        } else {
+            seatHoldService.releaseClaim(command.hold);
+        }
+    }
+
+    // Runs after commit. Callers get their result first; the derived state is refreshed afterwards, one
+    // step at a time, so a failing refresh can never turn a committed booking into an error for the client.
+    private void publish(List<BookingCommand> batch) {
+        List<BookingCommand> committed = new ArrayList<>();
+        for (BookingCommand command : batch) {
+            if (command.booking != null && command.failure == null) {
+                succeeded.incrementAndGet();
+                committed.add(command);
+                command.result.complete(command.booking);
+            } else {
+                failed.incrementAndGet();
+                quietly(() -> releaseHold(command, false));
+                command.result.completeExceptionally(command.failure != null
+                        ? command.failure : new RuntimeException("Booking failed"));
+            }
+        }
+        Set<Long> changedFlights = new LinkedHashSet<>();
+        for (BookingCommand command : committed) {
+            quietly(() -> releaseHold(command, true));
+            for (SeatClass seatClass : command.seatClasses) {
+                quietly(() -> seatAvailabilityCounters.onStatusChanged(command.flightId, seatClass,
+                        SeatStatus.AVAILABLE, SeatStatus.OCCUPIED));
+            }
+            quietly(() -> bookingExpiryScheduler.track(command.booking));
+            quietly(() -> dashboardCounters.onBookingChanged(null, DashboardCounters.BookingState.of(command.booking)));
+            quietly(() -> adminEvents.publishBooking(command.booking));
+            changedFlights.add(command.flightId);
+        }
+        for (Long flightId : changedFlights) {
+            quietly(() -> flightService.refreshAvailability(flightId));
+        }
+    }
+
+    // A failed refresh is only counted: the counters reconcile on a schedule and the expiry wheel reloads
+    // pending bookings at startup
+    private void quietly(Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            refreshFailures.incrementAndGet();
+        }
+    }
+
+    private final class BookingCommand {
+        final Long userId;
+        final Long flightId;
+        final List<PassengerRequest> passengers;
+        final List<Long> seatIds = new ArrayList<>();
+        final List<SeatClass> seatClasses = new ArrayList<>();
+        final CompletableFuture<Booking> result = new CompletableFuture<>();
+        SeatHoldService.Hold hold;
+        BigDecimal totalPrice;
+        Booking booking;
+        RuntimeException failure;
+
+        BookingCommand(Long userId, BookingRequest request) {
+            if (userId == null || request == null || request.getFlightId() == null) {
+                throw new RuntimeException("Flight is required");
+            }
+            List<PassengerRequest> list = request.getPassengers();
+            if (list == null || list.isEmpty() || list.size() > maxPassengers) {
+                throw new RuntimeException("A booking needs between 1 and " + maxPassengers + " passengers");
+            }
+            Set<Long> distinctSeats = new HashSet<>();
+            for (PassengerRequest passenger : list) {
+                if (passenger.getPassengerName() == null || passenger.getPassengerName().isBlank()) {
+                    throw new RuntimeException("Passenger name is required");
+                }
+                if (passenger.getSeatId() != null && !distinctSeats.add(passenger.getSeatId())) {
+                    throw new RuntimeException("Each passenger needs a different seat");
+                }
+            }
+            if (!distinctSeats.isEmpty() && distinctSeats.size() != list.size()) {
+                throw new RuntimeException("Choose a seat for every passenger or for none");
+            }
+            this.userId = userId;
+            this.flightId = request.getFlightId();
+            this.passengers = List.copyOf(list);
+            this.seatIds.addAll(distinctSeats);
+        }
+
+        void reset() {
+            seatClasses.clear();
+            totalPrice = null;
+            booking = null;
+            failure = null;
+        }
+    }
+
+    private record FlightInfo(FlightStatus status, BigDecimal basePrice) {}
+
+    private record SeatInfo(Long flightId, SeatClass seatClass, BigDecimal price, SeatStatus status) {}
+}
@@ -1,16 +1,26 @@
 package com.prm.flightbooking.service;
 
+import com.prm.flightbooking.dto.BookingRequest;
 import com.prm.flightbooking.entity.Booking;
 import com.prm.flightbooking.entity.Booking.BookingStatus;
 import com.prm.flightbooking.entity.Booking.PaymentStatus;
+import com.prm.flightbooking.entity.Payment;
 import com.prm.flightbooking.repository.BookingRepository;
+import com.prm.flightbooking.repository.PaymentRepository;
+import com.prm.flightbooking.service.DashboardCounters.BookingState;
+import com.prm.flightbooking.service.RevenueRollupService.PaymentState;
+import com.prm.flightbooking.util.SnowflakeIdGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class BookingService {
@@ -18,6 +28,30 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
     
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+    
+    @Autowired
+    private BookingPipeline bookingPipeline;
+    
+    @Autowired
+    private BookingExpiryScheduler bookingExpiryScheduler;
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    
+    @Autowired
+    private PopularityTracker popularityTracker;
+    
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+    
     public List<Booking> findAll() {
         return bookingRepository.findAll();
     }
@@ -31,18 +65,63 @@ public class BookingService {
     }
     
     public Booking createBooking(Booking booking) {
-        // Generate unique booking number
-        String bookingNumber = "BK" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        booking.setBookingNumber(bookingNumber);
-        return bookingRepository.save(booking);
+        // Time-ordered and unique per node, e.g. BK0C5Z3P8QW0G01
+        booking.setBookingNumber(idGenerator.nextCode("BK"));
+        Booking saved = bookingRepository.save(booking);
+        bookingExpiryScheduler.track(saved);
+        onStateChanged(null, saved);
+        return saved;
+    }
+    
+    // Reserves inventory and writes the booking through the pipeline, which group-commits when enabled
+    public Booking placeBooking(Long userId, BookingRequest request) {
+        try {
+            return bookingPipeline.submit(userId, request).get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Booking is still being processed, please check your bookings shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Booking was interrupted");
+        }
+    }
+    
+    public Map<String, Object> getPipelineStats() {
+        return bookingPipeline.getStats();
     }
     
     public Booking updateBooking(Booking booking) {
-        return bookingRepository.save(booking);
+        BookingState before = booking.getId() != null ? findState(booking.getId()) : null;
+        Booking saved = bookingRepository.save(booking);
+        onStateChanged(before, saved);
+        return saved;
     }
     
     public void deleteBooking(Long id) {
-        bookingRepository.deleteById(id);
+        BookingState before = findState(id);
+        if (before == null) {
+            return;
+        }
+        if (PopularityTracker.isCounted(before.status())) {
+            // Reads the booking's route, so it has to run before the delete
+            popularityTracker.onBookingWithdrawn(id, before.updatedAt());
+        }
+        // Payments go with the booking through the cascade, so this is a payment write for the rollups
+        revenueRollupService.withPaymentWrite(() -> {
+            List<Object[]> payments = paymentRepository.findStatesByBookingId(id);
+            bookingRepository.deleteById(id);
+            for (Object[] payment : payments) {
+                dashboardCounters.onPaymentChanged((Payment.PaymentStatus) payment[0], (BigDecimal) payment[1], null, null);
+                revenueRollupService.onPaymentChanged(PaymentState.of((Payment.PaymentMethod) payment[2],
+                        (Payment.PaymentStatus) payment[0], (BigDecimal) payment[1],
+                        (LocalDateTime) payment[3], (LocalDateTime) payment[4]), null);
+            }
+            return null;
+        });
+        bookingExpiryScheduler.untrack(id);
+        dashboardCounters.onBookingChanged(before, null);
+        adminEvents.publishBookingDeleted(id);
     }
     
     public List<Booking> findByUserId(Long userId) {
@@ -72,18 +151,53 @@ public class BookingService {
     public Booking updateBookingStatus(Long bookingId, BookingStatus status) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
+        BookingState before = BookingState.of(booking);
         booking.setStatus(status);
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        untrackIfSettled(saved);
+        onStateChanged(before, saved);
+        return saved;
     }
     
     public Booking updatePaymentStatus(Long bookingId, PaymentStatus paymentStatus) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
+        BookingState before = BookingState.of(booking);
         booking.setPaymentStatus(paymentStatus);
-        return bookingRepository.save(booking);
+        Booking saved = bookingRepository.save(booking);
+        untrackIfSettled(saved);
+        onStateChanged(before, saved);
+        return saved;
     }
     
     public Long countConfirmedBookingsByFlightId(Long flightId) {
         return bookingRepository.countConfirmedBookingsByFlightId(flightId);
     }
+    
+    public Map<String, Object> getExpiryStats() {
+        return bookingExpiryScheduler.getStats();
+    }
+    
+    private void onStateChanged(BookingState before, Booking saved) {
+        dashboardCounters.onBookingChanged(before, BookingState.of(saved));
+        adminEvents.publishBooking(saved);
+        boolean wasCounted = before != null && PopularityTracker.isCounted(before.status());
+        boolean counted = PopularityTracker.isCounted(saved.getStatus());
+        if (counted && !wasCounted) {
+            popularityTracker.onBookingsConfirmed(List.of(saved.getId()));
+        } else if (wasCounted && !counted) {
+            popularityTracker.onBookingWithdrawn(saved.getId(), before.updatedAt());
+        }
+    }
+    
+    private BookingState findState(Long bookingId) {
+        List<Object[]> rows = bookingRepository.findStateById(bookingId);
+        return rows.isEmpty() ? null : BookingState.of(rows.get(0));
+    }
+    
+    private void untrackIfSettled(Booking booking) {
+        if (booking.getStatus() != BookingStatus.PENDING || booking.getPaymentStatus() != PaymentStatus.PENDING) {
+            bookingExpiryScheduler.untrack(booking.getId());
+        }
+    }
 }
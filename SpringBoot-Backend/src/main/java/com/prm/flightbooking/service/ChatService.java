@@ -0,0 +1,163 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.ChatConversation;
+import com.prm.flightbooking.entity.ChatMessage;
+import com.prm.flightbooking.entity.ChatMessage.SenderType;
+import com.prm.flightbooking.entity.User;
+import com.prm.flightbooking.repository.ChatConversationRepository;
+import com.prm.flightbooking.repository.ChatMessageRepository;
+import com.prm.flightbooking.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Support chat as an append-only log per conversation. Each message gets the next sequence number of its
+// conversation under a row lock, so clients can ask for "everything after seq N". Each side has a read
+// cursor on the conversation; unread counts are lastSeq minus the cursor. Writing a message moves the
+// writer's own cursor, so whatever lies past a cursor was written by the other side.
+@Service
+public class ChatService {
+
+    private static final int MAX_CONTENT_LENGTH = 2000;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private ChatConversationRepository chatConversationRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // SYSTEM messages count as the admin side
+    public ChatMessage send(Long userId, SenderType senderType, Long senderId, String content) {
+        if (content == null || content.isBlank()) {
+            throw new RuntimeException("Content is required");
+        }
+        String text = content.strip();
+        if (text.length() > MAX_CONTENT_LENGTH) {
+            throw new RuntimeException("Message is too long");
+        }
+        SenderType sender = senderType != null ? senderType : SenderType.USER;
+        ensureConversation(userId);
+        ChatMessage saved = transactionTemplate.execute(status -> {
+            ChatConversation conversation = chatConversationRepository.lockByUserId(userId)
+                    .orElseThrow(() -> new RuntimeException("Conversation not found"));
+            long seq = conversation.getLastSeq() + 1;
+            conversation.setLastSeq(seq);
+            conversation.setLastMessageAt(LocalDateTime.now());
+            if (sender == SenderType.USER) {
+                conversation.setUserReadSeq(seq);
+            } else {
+                conversation.setAdminReadSeq(seq);
+            }
+            return chatMessageRepository.save(new ChatMessage(conversation, seq, sender, senderId, text));
+        });
+        adminEvents.publishChatMessage(userId, saved);
+        return saved;
+    }
+
+    public Optional<ChatConversation> findConversation(Long userId) {
+        return chatConversationRepository.findByUserId(userId);
+    }
+
+    // Messages after sinceSeq; without it, the newest limit messages. Seqs have no gaps, so both are one range read.
+    public List<ChatMessage> findMessages(ChatConversation conversation, Long sinceSeq, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long after = sinceSeq != null ? Math.max(0, sinceSeq) : Math.max(0, conversation.getLastSeq() - size);
+        return chatMessageRepository.findSince(conversation.getUser().getId(), after, PageRequest.of(0, size));
+    }
+
+    public List<ChatMessage> findLatestPerConversation(int limit) {
+        return chatMessageRepository.findLatestPerConversation(PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    public List<ChatMessage> findUnreadByAdmin(int limit) {
+        return chatMessageRepository.findUnreadByAdmin(PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    public Optional<ChatMessage> findMessage(Long messageId) {
+        return chatMessageRepository.findWithConversationById(messageId);
+    }
+
+    // Moves the reader's cursor up to seq; returns false if it was already there or further
+    public boolean markReadUpTo(Long userId, long seq, boolean byAdmin) {
+        int updated = byAdmin
+                ? chatConversationRepository.advanceAdminRead(userId, seq)
+                : chatConversationRepository.advanceUserRead(userId, seq);
+        if (updated == 0) {
+            return false;
+        }
+        adminEvents.publishChatRead(userId, byAdmin, seq);
+        return true;
+    }
+
+    public boolean markAllRead(Long userId, boolean byAdmin) {
+        int updated = byAdmin
+                ? chatConversationRepository.markAllReadByAdmin(userId)
+                : chatConversationRepository.markAllReadByUser(userId);
+        if (updated == 0) {
+            return false;
+        }
+        findConversation(userId).ifPresent(conversation ->
+                adminEvents.publishChatRead(userId, byAdmin, byAdmin ? conversation.getAdminReadSeq() : conversation.getUserReadSeq()));
+        return true;
+    }
+
+    public long getUnreadCount(Long userId) {
+        return findConversation(userId)
+                .map(conversation -> conversation.getLastSeq() - conversation.getUserReadSeq())
+                .orElse(0L);
+    }
+
+    public Map<String, Object> getAdminUnreadCounts() {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : chatConversationRepository.findAdminUnreadCounts()) {
+            long count = ((Number) row[1]).longValue();
+            counts.put((Long) row[0], count);
+            total += count;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total);
+        result.put("counts", counts);
+        return result;
+    }
+
+    private void ensureConversation(Long userId) {
+        if (chatConversationRepository.findByUserId(userId).isPresent()) {
+            return;
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            chatConversationRepository.saveAndFlush(new ChatConversation(user));
+        } catch (DataIntegrityViolationException e) {
+            // The other side opened it first
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Finds itineraries with up to two connections over an in-memory timetable.
+// The timetable is a struct-of-arrays snapshot of bookable flights ordered by departure airport and time,
+// plus per-route slices and airport adjacency bitsets used to prune legs that cannot reach the destination.
+// It is rebuilt lazily after FlightService reports a schedule change.
+@Component
+public class ConnectionSearchEngine {
+
+    public enum SortOrder {
+        DURATION, PRICE
+    }
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Value("${flight.connections.min-connection-minutes:45}")
+    private int minConnectionMinutes;
+
+    @Value("${flight.connections.max-connection-minutes:720}")
+    private int maxConnectionMinutes;
+
+    @Value("${flight.connections.search-window-hours:24}")
+    private int searchWindowHours;
+
+    private volatile Timetable timetable;
+    private volatile boolean dirty = true;
+
+    public void invalidate() {
+        dirty = true;
+    }
+
+    public List<Itinerary> search(Long originAirportId, Long destinationAirportId, LocalDateTime from,
+                                  int maxStops, Integer minConnectionOverride, SortOrder sortOrder, int limit) {
+        Timetable t = current();
+        Integer origin = t.airportIndex.get(originAirportId);
+        Integer destination = t.airportIndex.get(destinationAirportId);
+        if (origin == null || destination == null || origin.equals(destination) || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        int o = origin;
+        int d = destination;
+        int stops = Math.max(0, Math.min(2, maxStops));
+        long minConnection = 60L * (minConnectionOverride != null ? minConnectionOverride : minConnectionMinutes);
+        long maxConnection = 60L * Math.max(maxConnectionMinutes, minConnectionMinutes);
+        long windowStart = toEpoch(from);
+        long windowEnd = windowStart + 3600L * searchWindowHours;
+
+        Comparator<Itinerary> ranking = sortOrder == SortOrder.PRICE
+                ? Comparator.comparingDouble(Itinerary::getPriceScore).thenComparingLong(Itinerary::getDurationSeconds)
+                : Comparator.comparingLong(Itinerary::getDurationSeconds).thenComparingDouble(Itinerary::getPriceScore);
+        PriorityQueue<Itinerary> best = new PriorityQueue<>(ranking.reversed());
+        BitSet intoDestination = t.incoming[d];
+
+        int end1 = t.airportStart[o + 1];
+        for (int i = lowerBound(t.departure, t.airportStart[o], end1, windowStart); i < end1 && t.departure[i] < windowEnd; i++) {
+            int a = t.arrivalAirport[i];
+            if (a == d) {
+                offer(best, limit, ranking, t, i);
+                continue;
+            }
+            if (stops < 1 || a == o) {
+                continue;
+            }
+            boolean viaTwo = stops >= 2 && t.outgoing[a].intersects(intoDestination);
+            if (!viaTwo && !intoDestination.get(a)) {
+                continue;
+            }
+            long earliest2 = t.arrival[i] + minConnection;
+            long latest2 = t.arrival[i] + maxConnection;
+            if (!viaTwo) {
+                int[] slice = t.routeSlice(a, d);
+                if (slice != null) {
+                    for (int r = lowerBound(t.routeDeparture, slice[0], slice[1], earliest2); r < slice[1] && t.routeDeparture[r] <= latest2; r++) {
+                        offer(best, limit, ranking, t, i, t.routeOrder[r]);
+                    }
+                }
+                continue;
+            }
+            int end2 = t.airportStart[a + 1];
+            for (int j = lowerBound(t.departure, t.airportStart[a], end2, earliest2); j < end2 && t.departure[j] <= latest2; j++) {
+                int b = t.arrivalAirport[j];
+                if (b == d) {
+                    offer(best, limit, ranking, t, i, j);
+                    continue;
+                }
+                if (b == o || b == a || !intoDestination.get(b)) {
+                    continue;
+                }
+                int[] slice = t.routeSlice(b, d);
+                if (slice == null) {
+                    continue;
+                }
+                long earliest3 = t.arrival[j] + minConnection;
+                long latest3 = t.arrival[j] + maxConnection;
+                for (int r = lowerBound(t.routeDeparture, slice[0], slice[1], earliest3); r < slice[1] && t.routeDeparture[r] <= latest3; r++) {
+                    offer(best, limit, ranking, t, i, j, t.routeOrder[r]);
+                }
+            }
+        }
+
+        List<Itinerary> results = new ArrayList<>(best);
+        results.sort(ranking);
+        return results;
+    }
+
+    private void offer(PriorityQueue<Itinerary> best, int limit, Comparator<Itinerary> ranking, Timetable t, int... legs) {
+        long[] flightIds = new long[legs.length];
+        double price = 0;
+        for (int k = 0; k < legs.length; k++) {
+            flightIds[k] = t.flightId[legs[k]];
+            price += t.price[legs[k]];
+        }
+        Itinerary candidate = new Itinerary(flightIds, t.departure[legs[0]], t.arrival[legs[legs.length - 1]], price);
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (ranking.compare(candidate, best.peek()) < 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private Timetable current() {
+        Timetable t = timetable;
+        if (t == null || dirty) {
+            synchronized (this) {
+                if (timetable == null || dirty) {
+                    dirty = false;
+                    timetable = Timetable.build(flightRepository.findTimetableEntries(LocalDateTime.now().minusDays(1)));
+                }
+                t = timetable;
+            }
+        }
+        return t;
+    }
+
+    // First index in [from, to) whose value is >= key
+    private static int lowerBound(long[] values, int from, int to, long key) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static class Itinerary {
+        private final long[] flightIds;
+        private final long departureEpoch;
+        private final long arrivalEpoch;
+        private final double priceScore;
+
+        Itinerary(long[] flightIds, long departureEpoch, long arrivalEpoch, double priceScore) {
+            this.flightIds = flightIds;
+            this.departureEpoch = departureEpoch;
+            this.arrivalEpoch = arrivalEpoch;
+            this.priceScore = priceScore;
+        }
+
+        public long[] getFlightIds() { return flightIds; }
+        public int getStops() { return flightIds.length - 1; }
+        public long getDurationSeconds() { return arrivalEpoch - departureEpoch; }
+        public double getPriceScore() { return priceScore; }
+    }
+
+    private static final class Timetable {
+        final Map<Long, Integer> airportIndex;
+        final int[] airportStart;
+        final long[] departure;
+        final long[] arrival;
+        final int[] arrivalAirport;
+        final long[] flightId;
+        final double[] price;
+        final Map<Long, int[]> routeSlices;
+        final long[] routeDeparture;
+        final int[] routeOrder;
+        final BitSet[] outgoing;
+        final BitSet[] incoming;
+
+        private Timetable(Map<Long, Integer> airportIndex, int[] airportStart, long[] departure, long[] arrival,
+                          int[] arrivalAirport, long[] flightId, double[] price, Map<Long, int[]> routeSlices,
+                          long[] routeDeparture, int[] routeOrder, BitSet[] outgoing, BitSet[] incoming) {
+            this.airportIndex = airportIndex;
+            this.airportStart = airportStart;
+            this.departure = departure;
+            this.arrival = arrival;
+            this.arrivalAirport = arrivalAirport;
+            this.flightId = flightId;
+            this.price = price;
+            this.routeSlices = routeSlices;
+            this.routeDeparture = routeDeparture;
+            this.routeOrder = routeOrder;
+            this.outgoing = outgoing;
+            this.incoming = incoming;
+        }
+
+        int[] routeSlice(int from, int to) {
+            return routeSlices.get((long) from * airportStart.length + to);
+        }
+
+        // Rows are [flightId, departureAirportId, arrivalAirportId, departureTime, arrivalTime, basePrice]
+        static Timetable build(List<Object[]> rows) {
+            List<Object[]> valid = new ArrayList<>(rows.size());
+            Map<Long, Integer> airportIndex = new HashMap<>();
+            for (Object[] row : rows) {
+                if (row[1] == null || row[2] == null || row[3] == null || row[4] == null || row[1].equals(row[2])) {
+                    continue;
+                }
+                airportIndex.putIfAbsent((Long) row[1], airportIndex.size());
+                airportIndex.putIfAbsent((Long) row[2], airportIndex.size());
+                valid.add(row);
+            }
+
+            int airports = airportIndex.size();
+            int n = valid.size();
+            int[] depAirport = new int[n];
+            int[] arrAirport = new int[n];
+            long[] dep = new long[n];
+            long[] arr = new long[n];
+            long[] ids = new long[n];
+            double[] prices = new double[n];
+            for (int i = 0; i < n; i++) {
+                Object[] row = valid.get(i);
+                ids[i] = (Long) row[0];
+                depAirport[i] = airportIndex.get((Long) row[1]);
+                arrAirport[i] = airportIndex.get((Long) row[2]);
+                dep[i] = toEpoch((LocalDateTime) row[3]);
+                arr[i] = toEpoch((LocalDateTime) row[4]);
+                prices[i] = row[5] != null ? ((BigDecimal) row[5]).doubleValue() : 0;
+            }
+
+            Integer[] byAirport = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                byAirport[i] = i;
+            }
+            Arrays.sort(byAirport, Comparator.<Integer>comparingInt(i -> depAirport[i]).thenComparingLong(i -> dep[i]));
+
+            int[] airportStart = new int[airports + 1];
+            long[] departure = new long[n];
+            long[] arrival = new long[n];
+            int[] arrivalAirport = new int[n];
+            long[] flightId = new long[n];
+            double[] price = new double[n];
+            int[] position = new int[n];
+            BitSet[] outgoing = new BitSet[airports];
+            BitSet[] incoming = new BitSet[airports];
+            for (int a = 0; a < airports; a++) {
+                outgoing[a] = new BitSet(airports);
+                incoming[a] = new BitSet(airports);
+            }
+            for (int p = 0; p < n; p++) {
+                int i = byAirport[p];
+                position[i] = p;
+                departure[p] = dep[i];
+                arrival[p] = arr[i];
+                arrivalAirport[p] = arrAirport[i];
+                flightId[p] = ids[i];
+                price[p] = prices[i];
+                airportStart[depAirport[i] + 1]++;
+                outgoing[depAirport[i]].set(arrAirport[i]);
+                incoming[arrAirport[i]].set(depAirport[i]);
+            }
+            for (int a = 0; a < airports; a++) {
+                airportStart[a + 1] += airportStart[a];
+            }
+
+            Integer[] byRoute = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                byRoute[i] = i;
+            }
+            Arrays.sort(byRoute, Comparator.<Integer>comparingInt(i -> depAirport[i])
+                    .thenComparingInt(i -> arrAirport[i])
+                    .thenComparingLong(i -> dep[i]));
+            long[] routeDeparture = new long[n];
+            int[] routeOrder = new int[n];
+            Map<Long, int[]> routeSlices = new HashMap<>();
+            for (int r = 0; r < n; r++) {
+                int i = byRoute[r];
+                routeDeparture[r] = dep[i];
+                routeOrder[r] = position[i];
+                long key = (long) depAirport[i] * (airports + 1) + arrAirport[i];
+                int[] slice = routeSlices.computeIfAbsent(key, k -> new int[]{0, 0});
+                if (slice[1] == 0) {
+                    slice[0] = r;
+                }
+                slice[1] = r + 1;
+            }
+
+            return new Timetable(airportIndex, airportStart, departure, arrival, arrivalAirport, flightId, price,
+                    routeSlices, routeDeparture, routeOrder, outgoing, incoming);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Booking;
+import com.prm.flightbooking.entity.Booking.BookingStatus;
+import com.prm.flightbooking.entity.Payment;
+import com.prm.flightbooking.repository.BookingRepository;
+import com.prm.flightbooking.repository.FlightRepository;
+import com.prm.flightbooking.repository.PaymentRepository;
+import com.prm.flightbooking.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Totals behind the admin dashboard, kept in LongAdders and moved by the services as rows are written,
+// so reading them costs the same whatever the table sizes. Money is held in minor units (2 decimals).
+// Loaded from grouped queries at startup and re-reconciled periodically; the periodic pass also picks up
+// rows removed by cascades (e.g. a deleted user's bookings) that no service sees individually.
+@Component
+public class DashboardCounters {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private final LongAdder users = new LongAdder();
+    private final LongAdder flights = new LongAdder();
+    private final Map<BookingStatus, LongAdder> bookingsByStatus = adders(BookingStatus.class);
+    private final Map<Booking.PaymentStatus, LongAdder> bookingsByPaymentStatus = adders(Booking.PaymentStatus.class);
+    private final Map<Payment.PaymentStatus, LongAdder> paymentsByStatus = adders(Payment.PaymentStatus.class);
+    // Sum of totalPrice over bookings whose paymentStatus is PAID, the figure the dashboard reports as revenue
+    private final LongAdder paidBookingCents = new LongAdder();
+    private final LongAdder successfulPaymentCents = new LongAdder();
+
+    private volatile LocalDateTime reconciledAt;
+
+    @PostConstruct
+    public void start() {
+        reconcile();
+    }
+
+    // A write landing while this runs can be off by one until the next pass
+    @Scheduled(initialDelayString = "${dashboard.reconcile-interval-ms:600000}",
+               fixedDelayString = "${dashboard.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        Map<BookingStatus, Long> byStatus = new EnumMap<>(BookingStatus.class);
+        Map<Booking.PaymentStatus, Long> byPaymentStatus = new EnumMap<>(Booking.PaymentStatus.class);
+        long paidCents = 0;
+        for (Object[] row : bookingRepository.summarizeByStatusAndPaymentStatus()) {
+            long count = ((Number) row[2]).longValue();
+            byStatus.merge((BookingStatus) row[0], count, Long::sum);
+            byPaymentStatus.merge((Booking.PaymentStatus) row[1], count, Long::sum);
+            if (row[1] == Booking.PaymentStatus.PAID) {
+                paidCents += cents((BigDecimal) row[3]);
+            }
+        }
+        Map<Payment.PaymentStatus, Long> payments = new EnumMap<>(Payment.PaymentStatus.class);
+        long successCents = 0;
+        for (Object[] row : paymentRepository.summarizeByStatus()) {
+            payments.put((Payment.PaymentStatus) row[0], ((Number) row[1]).longValue());
+            if (row[0] == Payment.PaymentStatus.SUCCESS) {
+                successCents = cents((BigDecimal) row[2]);
+            }
+        }
+
+        setTo(users, userRepository.count());
+        setTo(flights, flightRepository.count());
+        bookingsByStatus.forEach((status, adder) -> setTo(adder, byStatus.getOrDefault(status, 0L)));
+        bookingsByPaymentStatus.forEach((status, adder) -> setTo(adder, byPaymentStatus.getOrDefault(status, 0L)));
+        paymentsByStatus.forEach((status, adder) -> setTo(adder, payments.getOrDefault(status, 0L)));
+        setTo(paidBookingCents, paidCents);
+        setTo(successfulPaymentCents, successCents);
+        reconciledAt = LocalDateTime.now();
+    }
+
+    public void onUserCreated() {
+        users.increment();
+    }
+
+    public void onUserDeleted() {
+        users.decrement();
+    }
+
+    public void onFlightCreated() {
+        flights.increment();
+    }
+
+    public void onFlightDeleted() {
+        flights.decrement();
+    }
+
+    // before is null for an insert, after is null for a delete
+    public void onBookingChanged(BookingState before, BookingState after) {
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    // Bulk status moves that leave paymentStatus and totalPrice alone
+    public void onBookingsStatusChanged(BookingStatus from, BookingStatus to, int count) {
+        bookingsByStatus.get(from).add(-count);
+        bookingsByStatus.get(to).add(count);
+    }
+
+    public void onPaymentChanged(Payment.PaymentStatus before, BigDecimal beforeAmount,
+                                 Payment.PaymentStatus after, BigDecimal afterAmount) {
+        if (before != null) {
+            paymentsByStatus.get(before).decrement();
+            if (before == Payment.PaymentStatus.SUCCESS) {
+                successfulPaymentCents.add(-cents(beforeAmount));
+            }
+        }
+        if (after != null) {
+            paymentsByStatus.get(after).increment();
+            if (after == Payment.PaymentStatus.SUCCESS) {
+                successfulPaymentCents.add(cents(afterAmount));
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long totalBookings = 0;
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (Map.Entry<BookingStatus, LongAdder> entry : bookingsByStatus.entrySet()) {
+            long count = entry.getValue().sum();
+            byStatus.put(entry.getKey().name(), count);
+            totalBookings += count;
+        }
+        Map<String, Long> byPaymentStatus = new LinkedHashMap<>();
+        bookingsByPaymentStatus.forEach((status, adder) -> byPaymentStatus.put(status.name(), adder.sum()));
+        long totalPayments = 0;
+        Map<String, Long> payments = new LinkedHashMap<>();
+        for (Map.Entry<Payment.PaymentStatus, LongAdder> entry : paymentsByStatus.entrySet()) {
+            long count = entry.getValue().sum();
+            payments.put(entry.getKey().name(), count);
+            totalPayments += count;
+        }
+        long successful = paymentsByStatus.get(Payment.PaymentStatus.SUCCESS).sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", users.sum());
+        stats.put("totalFlights", flights.sum());
+        stats.put("totalBookings", totalBookings);
+        stats.put("totalRevenue", BigDecimal.valueOf(paidBookingCents.sum(), 2));
+        stats.put("totalPayments", totalPayments);
+        stats.put("successfulPaymentAmount", BigDecimal.valueOf(successfulPaymentCents.sum(), 2));
+        stats.put("paymentSuccessRate", totalPayments == 0 ? 0.0 : successful * 100.0 / totalPayments);
+        stats.put("bookingsByStatus", byStatus);
+        stats.put("bookingsByPaymentStatus", byPaymentStatus);
+        stats.put("paymentsByStatus", payments);
+        stats.put("reconciledAt", reconciledAt);
+        return stats;
+    }
+
+    private void apply(BookingState state, int sign) {
+        if (state.status() != null) {
+            bookingsByStatus.get(state.status()).add(sign);
+        }
+        if (state.paymentStatus() != null) {
+            bookingsByPaymentStatus.get(state.paymentStatus()).add(sign);
+            if (state.paymentStatus() == Booking.PaymentStatus.PAID) {
+                paidBookingCents.add(sign * cents(state.totalPrice()));
+            }
+        }
+    }
+
+    private static void setTo(LongAdder adder, long value) {
+        adder.add(value - adder.sum());
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> adders(Class<E> type) {
+        Map<E, LongAdder> map = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            map.put(value, new LongAdder());
+        }
+        return map;
+    }
+
+    // The fields of a booking the counters depend on, captured before and after a write. updatedAt is
+    // there for PopularityTracker, which files a confirmation under that day.
+    public record BookingState(BookingStatus status, Booking.PaymentStatus paymentStatus, BigDecimal totalPrice,
+                               LocalDateTime updatedAt) {
+
+        public static BookingState of(Booking booking) {
+            return new BookingState(booking.getStatus(), booking.getPaymentStatus(), booking.getTotalPrice(),
+                    booking.getUpdatedAt());
+        }
+
+        // Row layout is BookingRepository.findStateById
+        public static BookingState of(Object[] row) {
+            return new BookingState((BookingStatus) row[0], (Booking.PaymentStatus) row[1], (BigDecimal) row[2],
+                    (LocalDateTime) row[3]);
+        }
+    }
+}
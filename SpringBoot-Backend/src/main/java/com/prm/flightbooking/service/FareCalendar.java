@@ -0,0 +1,119 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.dto.FareCalendarDay;
+import com.prm.flightbooking.entity.Flight;
+import com.prm.flightbooking.entity.Flight.FlightStatus;
+import com.prm.flightbooking.repository.FlightRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Lowest bookable basePrice per route and departure day. Each day keeps a price multiset of its bookable flights,
+// so repricing, selling out or cancelling one flight updates the day minimum without rescanning the route.
+@Component
+public class FareCalendar {
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private final Map<RouteKey, NavigableMap<LocalDate, TreeMap<BigDecimal, Integer>>> routes = new HashMap<>();
+    private final Map<Long, FareEntry> flights = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        List<Object[]> rows = flightRepository.findTimetableEntries(LocalDate.now().atStartOfDay());
+        synchronized (this) {
+            routes.clear();
+            flights.clear();
+            for (Object[] row : rows) {
+                if (row[1] == null || row[2] == null || row[3] == null || row[5] == null) {
+                    continue;
+                }
+                FareEntry entry = new FareEntry(new RouteKey((Long) row[1], (Long) row[2]),
+                        ((LocalDateTime) row[3]).toLocalDate(), (BigDecimal) row[5]);
+                add((Long) row[0], entry);
+            }
+        }
+    }
+
+    public synchronized void update(Flight flight) {
+        if (flight.getId() == null) {
+            return;
+        }
+        FareEntry updated = isBookable(flight)
+                ? new FareEntry(new RouteKey(flight.getDepartureAirport().getId(), flight.getArrivalAirport().getId()),
+                        flight.getDepartureTime().toLocalDate(), flight.getBasePrice())
+                : null;
+        FareEntry previous = flights.get(flight.getId());
+        if (previous != null && previous.equals(updated)) {
+            return;
+        }
+        remove(flight.getId());
+        if (updated != null) {
+            add(flight.getId(), updated);
+        }
+    }
+
+    public synchronized void remove(Long flightId) {
+        FareEntry previous = flights.remove(flightId);
+        if (previous == null) {
+            return;
+        }
+        NavigableMap<LocalDate, TreeMap<BigDecimal, Integer>> days = routes.get(previous.route());
+        TreeMap<BigDecimal, Integer> prices = days != null ? days.get(previous.day()) : null;
+        if (prices == null) {
+            return;
+        }
+        prices.computeIfPresent(previous.price(), (price, count) -> count > 1 ? count - 1 : null);
+        if (prices.isEmpty()) {
+            days.remove(previous.day());
+            if (days.isEmpty()) {
+                routes.remove(previous.route());
+            }
+        }
+    }
+
+    public synchronized List<FareCalendarDay> getCalendar(Long departureAirportId, Long arrivalAirportId, LocalDate from, int days) {
+        List<FareCalendarDay> calendar = new ArrayList<>(days);
+        NavigableMap<LocalDate, TreeMap<BigDecimal, Integer>> routeDays = routes.get(new RouteKey(departureAirportId, arrivalAirportId));
+        for (int i = 0; i < days; i++) {
+            LocalDate date = from.plusDays(i);
+            TreeMap<BigDecimal, Integer> prices = routeDays != null ? routeDays.get(date) : null;
+            if (prices == null) {
+                calendar.add(new FareCalendarDay(date, null, 0));
+            } else {
+                int count = prices.values().stream().mapToInt(Integer::intValue).sum();
+                calendar.add(new FareCalendarDay(date, prices.firstKey(), count));
+            }
+        }
+        return calendar;
+    }
+
+    private void add(Long flightId, FareEntry entry) {
+        flights.put(flightId, entry);
+        routes.computeIfAbsent(entry.route(), r -> new TreeMap<>())
+                .computeIfAbsent(entry.day(), d -> new TreeMap<>())
+                .merge(entry.price(), 1, Integer::sum);
+    }
+
+    private boolean isBookable(Flight flight) {
+        return flight.getDepartureAirport() != null && flight.getArrivalAirport() != null
+                && flight.getDepartureTime() != null && flight.getBasePrice() != null
+                && flight.getAvailableSeats() != null && flight.getAvailableSeats() > 0
+                && (flight.getStatus() == FlightStatus.SCHEDULED || flight.getStatus() == FlightStatus.DELAYED);
+    }
+
+    private record RouteKey(long departureAirportId, long arrivalAirportId) {}
+
+    private record FareEntry(RouteKey route, LocalDate day, BigDecimal price) {}
+}
@@ -0,0 +1,226 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Flight;
+import com.prm.flightbooking.repository.FlightRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory route/time index used to answer flight searches without a database round trip.
+// Each route holds copy-on-write arrays of departure times and flight ids sorted by departure time,
+// so readers never lock and range scans are two binary searches.
+@Component
+public class FlightSearchIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private final Map<RouteKey, RouteTimetable> routes = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedFlight> flights = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        Map<RouteKey, List<long[]>> grouped = new HashMap<>();
+        Map<Long, IndexedFlight> loaded = new HashMap<>();
+        for (Object[] row : flightRepository.findRouteIndexEntries()) {
+            if (row[1] == null || row[2] == null || row[3] == null) {
+                continue;
+            }
+            IndexedFlight entry = new IndexedFlight(
+                    new RouteKey((Long) row[1], (Long) row[2]), toEpoch((LocalDateTime) row[3]));
+            long id = (Long) row[0];
+            loaded.put(id, entry);
+            grouped.computeIfAbsent(entry.route(), k -> new ArrayList<>()).add(new long[]{entry.departure(), id});
+        }
+
+        synchronized (this) {
+            routes.clear();
+            flights.clear();
+            grouped.forEach((route, rows) -> {
+                rows.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+                long[] departures = new long[rows.size()];
+                long[] ids = new long[rows.size()];
+                for (int i = 0; i < rows.size(); i++) {
+                    departures[i] = rows.get(i)[0];
+                    ids[i] = rows.get(i)[1];
+                }
+                routes.put(route, new RouteTimetable(departures, ids));
+            });
+            flights.putAll(loaded);
+        }
+    }
+
+    public long[] findFlightIds(Long departureAirportId, Long arrivalAirportId, LocalDateTime from) {
+        return findFlightIds(departureAirportId, arrivalAirportId, from, null);
+    }
+
+    // Flights on the route departing within [from, to]; a null bound leaves that side open
+    public long[] findFlightIds(Long departureAirportId, Long arrivalAirportId, LocalDateTime from, LocalDateTime to) {
+        if (departureAirportId == null || arrivalAirportId == null) {
+            return EMPTY;
+        }
+        RouteTimetable timetable = routes.get(new RouteKey(departureAirportId, arrivalAirportId));
+        if (timetable == null) {
+            return EMPTY;
+        }
+        int start = from == null ? 0 : lowerBound(timetable.departures, toEpoch(from));
+        int end = to == null ? timetable.ids.length : upperBound(timetable.departures, toEpoch(to));
+        if (start >= end) {
+            return EMPTY;
+        }
+        return Arrays.copyOfRange(timetable.ids, start, end);
+    }
+
+    public synchronized void put(Flight flight) {
+        if (flight.getId() == null) {
+            return;
+        }
+        if (flight.getDepartureAirport() == null || flight.getArrivalAirport() == null
+                || flight.getDepartureTime() == null) {
+            remove(flight.getId());
+            return;
+        }
+        IndexedFlight updated = new IndexedFlight(
+                new RouteKey(flight.getDepartureAirport().getId(), flight.getArrivalAirport().getId()),
+                toEpoch(flight.getDepartureTime()));
+        IndexedFlight previous = flights.get(flight.getId());
+        if (updated.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            removeFromRoute(previous, flight.getId());
+        }
+        addToRoute(updated, flight.getId());
+        flights.put(flight.getId(), updated);
+    }
+
+    public synchronized void remove(Long flightId) {
+        IndexedFlight previous = flights.remove(flightId);
+        if (previous != null) {
+            removeFromRoute(previous, flightId);
+        }
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    // Where the index currently files the flight, or null if it is not indexed
+    public Placement placementOf(Long flightId) {
+        IndexedFlight entry = flightId != null ? flights.get(flightId) : null;
+        if (entry == null) {
+            return null;
+        }
+        return new Placement(entry.route().departureAirportId(), entry.route().arrivalAirportId(),
+                LocalDateTime.ofEpochSecond(entry.departure(), 0, ZoneOffset.UTC));
+    }
+
+    private void addToRoute(IndexedFlight entry, long flightId) {
+        RouteTimetable current = routes.get(entry.route());
+        if (current == null) {
+            routes.put(entry.route(), new RouteTimetable(new long[]{entry.departure()}, new long[]{flightId}));
+            return;
+        }
+        int n = current.ids.length;
+        int pos = lowerBound(current.departures, entry.departure());
+        while (pos < n && current.departures[pos] == entry.departure() && current.ids[pos] < flightId) {
+            pos++;
+        }
+        long[] departures = new long[n + 1];
+        long[] ids = new long[n + 1];
+        System.arraycopy(current.departures, 0, departures, 0, pos);
+        System.arraycopy(current.ids, 0, ids, 0, pos);
+        departures[pos] = entry.departure();
+        ids[pos] = flightId;
+        System.arraycopy(current.departures, pos, departures, pos + 1, n - pos);
+        System.arraycopy(current.ids, pos, ids, pos + 1, n - pos);
+        routes.put(entry.route(), new RouteTimetable(departures, ids));
+    }
+
+    private void removeFromRoute(IndexedFlight entry, long flightId) {
+        RouteTimetable current = routes.get(entry.route());
+        if (current == null) {
+            return;
+        }
+        int n = current.ids.length;
+        int pos = lowerBound(current.departures, entry.departure());
+        while (pos < n && current.departures[pos] == entry.departure() && current.ids[pos] != flightId) {
+            pos++;
+        }
+        if (pos >= n || current.ids[pos] != flightId) {
+            return;
+        }
+        if (n == 1) {
+            routes.remove(entry.route());
+            return;
+        }
+        long[] departures = new long[n - 1];
+        long[] ids = new long[n - 1];
+        System.arraycopy(current.departures, 0, departures, 0, pos);
+        System.arraycopy(current.ids, 0, ids, 0, pos);
+        System.arraycopy(current.departures, pos + 1, departures, pos, n - pos - 1);
+        System.arraycopy(current.ids, pos + 1, ids, pos, n - pos - 1);
+        routes.put(entry.route(), new RouteTimetable(departures, ids));
+    }
+
+    // First index whose value is >= key
+    private static int lowerBound(long[] values, long key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First index whose value is > key
+    private static int upperBound(long[] values, long key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public record Placement(long departureAirportId, long arrivalAirportId, LocalDateTime departureTime) {}
+
+    private record RouteKey(long departureAirportId, long arrivalAirportId) {}
+
+    private record IndexedFlight(RouteKey route, long departure) {}
+
+    private static final class RouteTimetable {
+        final long[] departures;
+        final long[] ids;
+
+        RouteTimetable(long[] departures, long[] ids) {
+            this.departures = departures;
+            this.ids = ids;
+        }
+    }
+}
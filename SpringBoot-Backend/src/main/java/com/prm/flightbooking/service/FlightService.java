@@ -1,22 +1,76 @@
 package com.prm.flightbooking.service;
 
+import com.prm.flightbooking.dto.FareCalendarDay;
+import com.prm.flightbooking.dto.FlightResponse;
+import com.prm.flightbooking.dto.ItineraryResponse;
+import com.prm.flightbooking.dto.RoundTripResponse;
 import com.prm.flightbooking.entity.Flight;
 import com.prm.flightbooking.entity.Flight.FlightStatus;
+import com.prm.flightbooking.entity.Seat.SeatClass;
 import com.prm.flightbooking.repository.FlightRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class FlightService {
     
+    // Keeps IN lists under the bind-parameter limits of the common drivers
+    private static final int RESPONSE_BATCH_SIZE = 1000;
+    
+    // Caps how far past the requested limit connection search widens to find itineraries with seats
+    private static final int MAX_ITINERARY_OVERFETCH = 16;
+    
     @Autowired
     private FlightRepository flightRepository;
     
+    @Autowired
+    private FlightSearchIndex flightSearchIndex;
+    
+    @Autowired
+    private ConnectionSearchEngine connectionSearchEngine;
+    
+    @Autowired
+    private SeatAvailabilityCounters seatAvailabilityCounters;
+    
+    @Autowired
+    private SearchResultCache searchResultCache;
+    
+    @Autowired
+    private FareCalendar fareCalendar;
+    
+    @Autowired
+    private AirportGeoIndex airportGeoIndex;
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+    
+    @Autowired
+    @Qualifier("flightSearchExecutor")
+    private Executor flightSearchExecutor;
+    
     public List<Flight> findAll() {
         return flightRepository.findAll();
     }
@@ -26,15 +80,29 @@ public class FlightService {
     }
     
     public Flight createFlight(Flight flight) {
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.save(flight);
+        dashboardCounters.onFlightCreated();
+        onFlightChanged(saved);
+        return saved;
     }
     
     public Flight updateFlight(Flight flight) {
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.save(flight);
+        onFlightChanged(saved);
+        return saved;
     }
     
     public void deleteFlight(Long id) {
-        flightRepository.deleteById(id);
+        FlightSearchIndex.Placement previous = flightSearchIndex.placementOf(id);
+        if (flightRepository.existsById(id)) {
+            flightRepository.deleteById(id);
+            dashboardCounters.onFlightDeleted();
+        }
+        flightSearchIndex.remove(id);
+        searchResultCache.invalidate(previous);
+        fareCalendar.remove(id);
+        seatAvailabilityCounters.onFlightRemoved(id);
+        connectionSearchEngine.invalidate();
     }
     
     public List<Flight> findByStatus(FlightStatus status) {
@@ -42,12 +110,12 @@ public class FlightService {
     }
     
     public List<Flight> searchFlights(Long departureAirportId, Long arrivalAirportId, LocalDateTime departureDate) {
-        return flightRepository.findFlightsByRouteAndDate(departureAirportId, arrivalAirportId, departureDate);
+        return loadInDepartureOrder(flightSearchIndex.findFlightIds(departureAirportId, arrivalAirportId, departureDate));
     }
     
     public List<Flight> searchFlightsByDateRange(Long departureAirportId, Long arrivalAirportId, 
                                                 LocalDateTime startDate, LocalDateTime endDate) {
-        return flightRepository.findFlightsByRouteAndDateRange(departureAirportId, arrivalAirportId, startDate, endDate);
+        return loadInDepartureOrder(flightSearchIndex.findFlightIds(departureAirportId, arrivalAirportId, startDate, endDate));
     }
     
     public List<Flight> findByAirline(Long airlineId) {
@@ -62,21 +130,277 @@ public class FlightService {
         return flightRepository.findAvailableFlights();
     }
     
+    public List<FlightResponse> findAllFlightResponses() {
+        return flightRepository.findAllFlightResponses();
+    }
+    
+    public List<FlightResponse> findAvailableFlightResponses() {
+        return flightRepository.findAvailableFlightResponses();
+    }
+    
+    // Returns up to limit + 1 rows so callers can tell whether another page follows
+    public List<FlightResponse> findFlightResponsePage(LocalDateTime afterDepartureTime, Long afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (afterDepartureTime == null || afterId == null) {
+            return flightRepository.findFlightResponsePage(page);
+        }
+        return flightRepository.findFlightResponsePageAfter(afterDepartureTime, afterId, page);
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamFlightResponses(Consumer<FlightResponse> consumer) {
+        try (Stream<FlightResponse> flights = flightRepository.streamAllFlightResponses()) {
+            flights.forEach(consumer);
+        }
+    }
+    
+    public List<FlightResponse> searchFlightResponses(Long departureAirportId, Long arrivalAirportId, LocalDateTime departureDate) {
+        return searchFlightResponses(departureAirportId, arrivalAirportId, departureDate, null, null);
+    }
+    
+    // Route/day results come from the search cache; capacity is checked against the live seat counters.
+    // Flights without a seat map fall back to Flight.availableSeats and cannot satisfy a seat class filter
+    public List<FlightResponse> searchFlightResponses(Long departureAirportId, Long arrivalAirportId, LocalDateTime departureDate,
+                                                      Integer passengers, SeatClass seatClass) {
+        if (departureAirportId == null || arrivalAirportId == null || departureDate == null) {
+            return new ArrayList<>();
+        }
+        List<FlightResponse> routeDay = searchResultCache.get(departureAirportId, arrivalAirportId, departureDate.toLocalDate(),
+                () -> loadResponsesInDepartureOrder(flightSearchIndex.findFlightIds(
+                        departureAirportId, arrivalAirportId, departureDate.toLocalDate().atStartOfDay())));
+        
+        List<FlightResponse> responses = new ArrayList<>();
+        for (FlightResponse response : routeDay) {
+            if (!response.getDepartureTime().isBefore(departureDate) && hasCapacity(response, passengers, seatClass)) {
+                responses.add(response);
+            }
+        }
+        return responses;
+    }
+    
+    // Resolves every airport within the radius from the geo index and answers all origins with one projection query
+    public List<FlightResponse> searchFlightsFromNearby(double latitude, double longitude, double radiusKm, Long arrivalAirportId,
+                                                        LocalDateTime departureDate, Integer passengers, SeatClass seatClass) {
+        List<long[]> perOrigin = new ArrayList<>();
+        int total = 0;
+        for (AirportGeoIndex.Nearby origin : airportGeoIndex.findWithinRadius(latitude, longitude, radiusKm, Integer.MAX_VALUE)) {
+            if (arrivalAirportId != null && origin.airportId() == arrivalAirportId) {
+                continue;
+            }
+            long[] ids = flightSearchIndex.findFlightIds(origin.airportId(), arrivalAirportId, departureDate);
+            perOrigin.add(ids);
+            total += ids.length;
+        }
+        long[] flightIds = new long[total];
+        int offset = 0;
+        for (long[] ids : perOrigin) {
+            System.arraycopy(ids, 0, flightIds, offset, ids.length);
+            offset += ids.length;
+        }
+        List<FlightResponse> responses = loadResponsesInDepartureOrder(flightIds);
+        responses.removeIf(response -> !hasCapacity(response, passengers, seatClass));
+        return responses;
+    }
+    
+    // Runs both legs concurrently so latency tracks the slower leg rather than the sum
+    public RoundTripResponse searchRoundTrip(Long departureAirportId, Long arrivalAirportId,
+                                             LocalDateTime departureDate, LocalDateTime returnDate,
+                                             Integer passengers, SeatClass seatClass) {
+        CompletableFuture<List<FlightResponse>> outbound = CompletableFuture.supplyAsync(
+                () -> searchFlightResponses(departureAirportId, arrivalAirportId, departureDate, passengers, seatClass),
+                flightSearchExecutor);
+        CompletableFuture<List<FlightResponse>> inbound = CompletableFuture.supplyAsync(
+                () -> searchFlightResponses(arrivalAirportId, departureAirportId, returnDate, passengers, seatClass),
+                flightSearchExecutor);
+        try {
+            return new RoundTripResponse(outbound.join(), inbound.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    public List<FareCalendarDay> getFareCalendar(Long departureAirportId, Long arrivalAirportId, LocalDate from, int days) {
+        return fareCalendar.getCalendar(departureAirportId, arrivalAirportId, from, days);
+    }
+    
+    public Map<String, Object> getSearchCacheStats() {
+        return searchResultCache.stats();
+    }
+    
+    public List<FlightResponse> findFlightResponsesByIds(long[] flightIds) {
+        return loadResponsesInDepartureOrder(flightIds);
+    }
+    
+    public List<ItineraryResponse> searchItineraries(Long departureAirportId, Long arrivalAirportId, LocalDateTime departureDate,
+                                                     int maxStops, Integer minConnectionMinutes,
+                                                     ConnectionSearchEngine.SortOrder sortOrder, int passengers, int limit) {
+        // The engine ranks on schedule alone, so legs short of seats drop itineraries after its cut.
+        // Widen the cut until enough itineraries survive or the engine runs out.
+        Map<Long, FlightResponse> legs = new HashMap<>();
+        List<ItineraryResponse> responses = new ArrayList<>();
+        int fetch = limit;
+        while (true) {
+            List<ConnectionSearchEngine.Itinerary> itineraries = connectionSearchEngine.search(
+                    departureAirportId, arrivalAirportId, departureDate, maxStops, minConnectionMinutes, sortOrder, fetch);
+            
+            long[] legIds = itineraries.stream().flatMapToLong(it -> Arrays.stream(it.getFlightIds()))
+                    .distinct().filter(id -> !legs.containsKey(id)).toArray();
+            for (FlightResponse leg : loadResponsesInDepartureOrder(legIds)) {
+                legs.put(leg.getId(), leg);
+            }
+            
+            responses.clear();
+            for (ConnectionSearchEngine.Itinerary itinerary : itineraries) {
+                ItineraryResponse response = toItineraryResponse(itinerary, legs, passengers);
+                if (response != null) {
+                    responses.add(response);
+                    if (responses.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (responses.size() >= limit || itineraries.size() < fetch || fetch >= limit * MAX_ITINERARY_OVERFETCH) {
+                return responses;
+            }
+            fetch = Math.min(fetch * 4, limit * MAX_ITINERARY_OVERFETCH);
+        }
+    }
+    
+    // Null when a leg is gone or cannot seat the whole party
+    private ItineraryResponse toItineraryResponse(ConnectionSearchEngine.Itinerary itinerary, Map<Long, FlightResponse> legs,
+                                                  int passengers) {
+        List<FlightResponse> itineraryLegs = new ArrayList<>();
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (long id : itinerary.getFlightIds()) {
+            FlightResponse leg = legs.get(id);
+            if (leg == null || leg.getAvailableSeats() == null || leg.getAvailableSeats() < passengers) {
+                return null;
+            }
+            itineraryLegs.add(leg);
+            totalPrice = totalPrice.add(leg.getBasePrice());
+        }
+        ItineraryResponse response = new ItineraryResponse();
+        response.setLegs(itineraryLegs);
+        response.setStops(itinerary.getStops());
+        response.setDepartureTime(itineraryLegs.get(0).getDepartureTime());
+        response.setArrivalTime(itineraryLegs.get(itineraryLegs.size() - 1).getArrivalTime());
+        response.setTotalDurationMinutes(itinerary.getDurationSeconds() / 60);
+        response.setTotalPrice(totalPrice);
+        return response;
+    }
+    
     public Flight updateFlightStatus(Long flightId, FlightStatus status) {
         Flight flight = flightRepository.findById(flightId)
                 .orElseThrow(() -> new RuntimeException("Flight not found"));
         flight.setStatus(status);
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.save(flight);
+        onFlightChanged(saved);
+        adminEvents.publishFlightStatus(List.of(saved.getId()), saved.getStatus());
+        return saved;
     }
     
+    // Kept for existing callers; negative values release seats. Throws instead of going below zero or above capacity.
     public Flight updateAvailableSeats(Long flightId, Integer seatsBooked) {
-        Flight flight = flightRepository.findById(flightId)
+        boolean applied = seatsBooked >= 0 ? reserveSeats(flightId, seatsBooked) : releaseSeats(flightId, -seatsBooked);
+        if (!applied) {
+            throw new IllegalStateException(seatsBooked >= 0 ? "Not enough seats available" : "Released seats exceed flight capacity");
+        }
+        return flightRepository.findById(flightId)
                 .orElseThrow(() -> new RuntimeException("Flight not found"));
-        flight.setAvailableSeats(flight.getAvailableSeats() - seatsBooked);
-        return flightRepository.save(flight);
+    }
+    
+    // One guarded UPDATE: true if the seats were taken, false if the flight is sold out for this party
+    public boolean reserveSeats(Long flightId, int count) {
+        if (flightRepository.decrementAvailableSeats(flightId, count, LocalDateTime.now()) == 0) {
+            if (!flightRepository.existsById(flightId)) {
+                throw new RuntimeException("Flight not found");
+            }
+            return false;
+        }
+        refreshAvailability(flightId);
+        return true;
+    }
+    
+    public boolean releaseSeats(Long flightId, int count) {
+        if (flightRepository.incrementAvailableSeats(flightId, count, LocalDateTime.now()) == 0) {
+            if (!flightRepository.existsById(flightId)) {
+                throw new RuntimeException("Flight not found");
+            }
+            return false;
+        }
+        refreshAvailability(flightId);
+        return true;
+    }
+    
+    // Refreshes cached search state after availableSeats was changed by a bulk update
+    public void refreshAvailability(Long flightId) {
+        searchResultCache.invalidate(flightSearchIndex.placementOf(flightId));
+        flightRepository.findById(flightId).ifPresent(fareCalendar::update);
+    }
+    
+    // After a bulk status change: flights that left are no longer bookable, placements stay where they were
+    public void refreshAfterStatusChange(Collection<Long> flightIds) {
+        for (Long flightId : flightIds) {
+            searchResultCache.invalidate(flightSearchIndex.placementOf(flightId));
+            fareCalendar.remove(flightId);
+        }
+        if (!flightIds.isEmpty()) {
+            connectionSearchEngine.invalidate();
+        }
     }
     
     public List<Flight> findOverdueFlights() {
         return flightRepository.findOverdueFlights(LocalDateTime.now());
     }
+    
+    private boolean hasCapacity(FlightResponse response, Integer passengers, SeatClass seatClass) {
+        if (passengers == null && seatClass == null) {
+            return true;
+        }
+        int party = passengers != null ? passengers : 1;
+        int available = seatAvailabilityCounters.available(response.getId(), seatClass);
+        if (available < 0) {
+            return seatClass == null && response.getAvailableSeats() != null && response.getAvailableSeats() >= party;
+        }
+        return available >= party;
+    }
+    
+    private void onFlightChanged(Flight flight) {
+        FlightSearchIndex.Placement previous = flightSearchIndex.placementOf(flight.getId());
+        flightSearchIndex.put(flight);
+        searchResultCache.invalidate(previous);
+        searchResultCache.invalidate(flightSearchIndex.placementOf(flight.getId()));
+        fareCalendar.update(flight);
+        connectionSearchEngine.invalidate();
+    }
+    
+    private List<FlightResponse> loadResponsesInDepartureOrder(long[] flightIds) {
+        List<FlightResponse> responses = new ArrayList<>(flightIds.length);
+        for (int start = 0; start < flightIds.length; start += RESPONSE_BATCH_SIZE) {
+            int end = Math.min(start + RESPONSE_BATCH_SIZE, flightIds.length);
+            List<Long> ids = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                ids.add(flightIds[i]);
+            }
+            responses.addAll(flightRepository.findFlightResponsesByIdIn(ids));
+        }
+        responses.sort(Comparator.comparing(FlightResponse::getDepartureTime).thenComparing(FlightResponse::getId));
+        return responses;
+    }
+    
+    private List<Flight> loadInDepartureOrder(long[] flightIds) {
+        if (flightIds.length == 0) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = new ArrayList<>(flightIds.length);
+        for (long id : flightIds) {
+            ids.add(id);
+        }
+        List<Flight> flights = new ArrayList<>(flightRepository.findAllById(ids));
+        flights.sort(Comparator.comparing(Flight::getDepartureTime).thenComparing(Flight::getId));
+        return flights;
+    }
 }
@@ -0,0 +1,152 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Flight.FlightStatus;
+import com.prm.flightbooking.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves flights whose departure or arrival time has passed to DEPARTED / ARRIVED. Ids are picked in keyset
+// chunks and each chunk is one guarded UPDATE, so no Flight entities are loaded. Only the node holding the
+// "flight-status" lease runs it; the lease is renewed per chunk and a node that loses it stops mid-run.
+// DELAYED and CANCELLED flights are left to the admins.
+@Component
+public class FlightStatusScheduler {
+
+    private static final String LEASE_NAME = "flight-status";
+    private static final Set<FlightStatus> NOT_YET_DEPARTED = EnumSet.of(FlightStatus.SCHEDULED, FlightStatus.BOARDING);
+    private static final Set<FlightStatus> NOT_YET_ARRIVED = EnumSet.of(FlightStatus.SCHEDULED, FlightStatus.BOARDING, FlightStatus.DEPARTED);
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+
+    @Value("${flight.status.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${flight.status.lease-seconds:120}")
+    private long leaseSeconds;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong skippedNotLeader = new AtomicLong();
+    private final AtomicLong chunksProcessed = new AtomicLong();
+    private final AtomicLong departed = new AtomicLong();
+    private final AtomicLong arrived = new AtomicLong();
+
+    private volatile boolean leader;
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunDurationMillis;
+    private volatile String lastError;
+
+    @Scheduled(initialDelayString = "${flight.status.initial-delay-ms:30000}",
+               fixedDelayString = "${flight.status.interval-ms:60000}")
+    public void scheduledRun() {
+        run();
+    }
+
+    // Returns false if this node is not the leader or a run is already in progress
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            leader = renewLease();
+            if (!leader) {
+                skippedNotLeader.incrementAndGet();
+                return false;
+            }
+            // Whole seconds, so the updatedAt the run writes reads back unchanged on any column precision
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            lastRunAt = now;
+            // Arrivals first, so a flight that both departed and landed since the last run goes straight to ARRIVED
+            arrived.addAndGet(transition(now, true));
+            departed.addAndGet(transition(now, false));
+            lastError = null;
+            runs.incrementAndGet();
+            lastRunDurationMillis = System.currentTimeMillis() - started;
+            return true;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leader", leader);
+        stats.put("owner", schedulerLeaseService.getOwner());
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("skippedNotLeader", skippedNotLeader.get());
+        stats.put("chunksProcessed", chunksProcessed.get());
+        stats.put("departed", departed.get());
+        stats.put("arrived", arrived.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunDurationMillis", lastRunDurationMillis);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    private int transition(LocalDateTime now, boolean arrival) {
+        int total = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = arrival
+                    ? flightRepository.findIdsArrivedBefore(NOT_YET_ARRIVED, now, afterId, PageRequest.of(0, chunkSize))
+                    : flightRepository.findIdsDepartedBefore(NOT_YET_DEPARTED, now, afterId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            FlightStatus target = arrival ? FlightStatus.ARRIVED : FlightStatus.DEPARTED;
+            int updated = arrival
+                    ? flightRepository.markArrived(ids, NOT_YET_ARRIVED, target, now)
+                    : flightRepository.markDeparted(ids, NOT_YET_DEPARTED, target, now);
+            total += updated;
+            if (updated > 0) {
+                // The guard may have skipped rows changed since the select; only announce the ones that moved
+                List<Long> moved = updated == ids.size() ? ids : flightRepository.findIdsMovedTo(ids, target, now);
+                flightService.refreshAfterStatusChange(moved);
+                adminEvents.publishFlightStatus(moved, target);
+            }
+            chunksProcessed.incrementAndGet();
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                return total;
+            }
+            if (!renewLease()) {
+                // Another node took over; it picks up from where the rows stand
+                leader = false;
+                return total;
+            }
+        }
+    }
+
+    private boolean renewLease() {
+        return schedulerLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds));
+    }
+}
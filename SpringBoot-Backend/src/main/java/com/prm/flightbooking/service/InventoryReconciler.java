@@ -0,0 +1,213 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.repository.BookingRepository;
+import com.prm.flightbooking.repository.FlightRepository;
+import com.prm.flightbooking.repository.SeatRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Compares Flight.availableSeats with the seat rows and confirmed bookings of the same flight.
+// Each run only looks at flights whose flight, seat or booking rows changed since the previous run's watermark,
+// and checks them in id chunks with one grouped query per table. Where a flight has a seat map the seat rows
+// are authoritative and availableSeats is corrected; booking-count mismatches are reported only.
+@Component
+public class InventoryReconciler {
+
+    private static final int MAX_RECENT_MISMATCHES = 100;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Value("${inventory.reconciler.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${inventory.reconciler.auto-fix:true}")
+    private boolean autoFix;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong flightsChecked = new AtomicLong();
+    private final AtomicLong chunksProcessed = new AtomicLong();
+    private final AtomicLong mismatchesFound = new AtomicLong();
+    private final AtomicLong mismatchesFixed = new AtomicLong();
+    private final AtomicLong fixConflicts = new AtomicLong();
+    private final AtomicLong currentRunTotal = new AtomicLong();
+    private final AtomicLong currentRunProcessed = new AtomicLong();
+    private final Deque<Map<String, Object>> recentMismatches = new ArrayDeque<>();
+
+    private volatile LocalDateTime watermark;
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile long lastRunDurationMillis;
+    private volatile String lastError;
+
+    @Scheduled(initialDelayString = "${inventory.reconciler.initial-delay-ms:60000}",
+               fixedDelayString = "${inventory.reconciler.interval-ms:300000}")
+    public void scheduledRun() {
+        run();
+    }
+
+    // Returns false without doing anything if a run is already in progress
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        lastRunStartedAt = startedAt;
+        try {
+            List<Long> changed = new ArrayList<>(findChangedFlightIds(watermark));
+            currentRunTotal.set(changed.size());
+            currentRunProcessed.set(0);
+            for (int from = 0; from < changed.size(); from += chunkSize) {
+                List<Long> chunk = changed.subList(from, Math.min(from + chunkSize, changed.size()));
+                reconcileChunk(chunk);
+                chunksProcessed.incrementAndGet();
+                currentRunProcessed.addAndGet(chunk.size());
+            }
+            // Rows changed while this run was in progress are picked up next time
+            watermark = startedAt;
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+        } finally {
+            runs.incrementAndGet();
+            lastRunFinishedAt = LocalDateTime.now();
+            lastRunDurationMillis = System.currentTimeMillis() - started;
+            running.set(false);
+        }
+        return true;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("running", running.get());
+        metrics.put("autoFix", autoFix);
+        metrics.put("watermark", watermark);
+        metrics.put("lastRunStartedAt", lastRunStartedAt);
+        metrics.put("lastRunFinishedAt", lastRunFinishedAt);
+        metrics.put("lastRunDurationMillis", lastRunDurationMillis);
+        metrics.put("lastError", lastError);
+        metrics.put("currentRunTotal", currentRunTotal.get());
+        metrics.put("currentRunProcessed", currentRunProcessed.get());
+        metrics.put("runs", runs.get());
+        metrics.put("chunksProcessed", chunksProcessed.get());
+        metrics.put("flightsChecked", flightsChecked.get());
+        metrics.put("mismatchesFound", mismatchesFound.get());
+        metrics.put("mismatchesFixed", mismatchesFixed.get());
+        metrics.put("fixConflicts", fixConflicts.get());
+        synchronized (recentMismatches) {
+            metrics.put("recentMismatches", new ArrayList<>(recentMismatches));
+        }
+        return metrics;
+    }
+
+    private TreeSet<Long> findChangedFlightIds(LocalDateTime since) {
+        TreeSet<Long> ids = new TreeSet<>();
+        if (since == null) {
+            ids.addAll(flightRepository.findAllIds());
+            return ids;
+        }
+        ids.addAll(flightRepository.findIdsUpdatedSince(since));
+        ids.addAll(seatRepository.findFlightIdsWithSeatsUpdatedSince(since));
+        ids.addAll(bookingRepository.findFlightIdsWithBookingsUpdatedSince(since));
+        ids.remove(null);
+        return ids;
+    }
+
+    private void reconcileChunk(List<Long> flightIds) {
+        Map<Long, long[]> seats = groupCounts(seatRepository.countSeatsByFlightIdIn(flightIds));
+        Map<Long, long[]> bookings = groupCounts(bookingRepository.countConfirmedBookingsByFlightIdIn(flightIds));
+
+        for (Object[] row : flightRepository.findSeatCountsByIdIn(flightIds)) {
+            Long flightId = (Long) row[0];
+            int totalSeats = row[1] != null ? (Integer) row[1] : 0;
+            int availableSeats = row[2] != null ? (Integer) row[2] : 0;
+            long[] seatCounts = seats.get(flightId);
+            long bookedPassengers = bookings.containsKey(flightId) ? bookings.get(flightId)[1] : 0;
+            flightsChecked.incrementAndGet();
+
+            if (seatCounts != null && seatCounts[0] > 0) {
+                int seatAvailable = (int) seatCounts[1];
+                if (availableSeats != seatAvailable) {
+                    boolean fixed = autoFix && fix(flightId, availableSeats, seatAvailable);
+                    recordMismatch(flightId, "SEAT_ROWS", availableSeats, seatAvailable, bookedPassengers, fixed);
+                }
+                if (bookedPassengers > seatCounts[0] - seatAvailable) {
+                    recordMismatch(flightId, "BOOKINGS_EXCEED_TAKEN_SEATS", availableSeats,
+                            seatAvailable, bookedPassengers, false);
+                }
+            } else if (bookedPassengers > 0 && availableSeats > totalSeats - bookedPassengers) {
+                recordMismatch(flightId, "BOOKINGS", availableSeats,
+                        Math.max(0, totalSeats - bookedPassengers), bookedPassengers, false);
+            }
+        }
+    }
+
+    private boolean fix(Long flightId, int observed, int expected) {
+        if (flightRepository.correctAvailableSeats(flightId, observed, expected, LocalDateTime.now()) == 0) {
+            // Changed concurrently; the write moved updatedAt past the watermark, so the next run rechecks it
+            fixConflicts.incrementAndGet();
+            return false;
+        }
+        mismatchesFixed.incrementAndGet();
+        flightService.refreshAvailability(flightId);
+        return true;
+    }
+
+    private void recordMismatch(Long flightId, String kind, int availableSeats, long expected,
+                                long bookedPassengers, boolean fixed) {
+        mismatchesFound.incrementAndGet();
+        Map<String, Object> mismatch = new HashMap<>();
+        mismatch.put("flightId", flightId);
+        mismatch.put("kind", kind);
+        mismatch.put("availableSeats", availableSeats);
+        mismatch.put("expected", expected);
+        mismatch.put("bookedPassengers", bookedPassengers);
+        mismatch.put("fixed", fixed);
+        mismatch.put("detectedAt", LocalDateTime.now());
+        synchronized (recentMismatches) {
+            if (recentMismatches.size() >= MAX_RECENT_MISMATCHES) {
+                recentMismatches.removeLast();
+            }
+            recentMismatches.addFirst(mismatch);
+        }
+    }
+
+    // Rows are [flightId, count, count]; SUM over an empty group comes back null
+    private static Map<Long, long[]> groupCounts(List<Object[]> rows) {
+        Map<Long, long[]> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] == null) {
+                continue;
+            }
+            long first = row[1] != null ? ((Number) row[1]).longValue() : 0;
+            long second = row[2] != null ? ((Number) row[2]).longValue() : 0;
+            counts.put((Long) row[0], new long[]{first, second});
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,127 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Notification;
+import com.prm.flightbooking.entity.Notification.NotificationType;
+import com.prm.flightbooking.entity.User;
+import com.prm.flightbooking.repository.NotificationRepository;
+import com.prm.flightbooking.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Notifications plus an in-memory unread count per user. The counts are loaded with one grouped query at
+// startup and then moved only by writes that report they changed a row (insert, guarded UPDATE to READ),
+// so reading any set of counts never touches the notifications table.
+@Service
+public class NotificationService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, AtomicLong> unreadByUser = new ConcurrentHashMap<>();
+    private final AtomicLong totalUnread = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        long total = 0;
+        for (Object[] row : notificationRepository.countUnreadByUser()) {
+            long count = ((Number) row[1]).longValue();
+            unreadByUser.put((Long) row[0], new AtomicLong(count));
+            total += count;
+        }
+        totalUnread.set(total);
+    }
+
+    public Notification createNotification(Long userId, String title, String message,
+                                           NotificationType type, Long relatedBookingId) {
+        if (title == null || title.isBlank()) {
+            throw new RuntimeException("Title is required");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Notification saved = notificationRepository.save(new Notification(user, title, message,
+                type != null ? type : NotificationType.REMINDER, relatedBookingId));
+        adjust(userId, 1);
+        return saved;
+    }
+
+    public List<Notification> findByUserId(Long userId, int page, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        return notificationRepository.findByUserId(userId, PageRequest.of(Math.max(0, page - 1), size));
+    }
+
+    // Returns false if the notification does not exist, belongs to someone else or was already read
+    public boolean markAsRead(Long notificationId, Long userId) {
+        if (notificationRepository.markRead(notificationId, userId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        adjust(userId, -1);
+        return true;
+    }
+
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllRead(userId, LocalDateTime.now());
+        adjust(userId, -updated);
+        return updated;
+    }
+
+    public long getUnreadCount(Long userId) {
+        AtomicLong count = unreadByUser.get(userId);
+        return count != null ? count.get() : 0;
+    }
+
+    // Without ids: every user with unread notifications
+    public Map<String, Object> getUnreadCounts(Collection<Long> userIds) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        long total;
+        if (userIds == null || userIds.isEmpty()) {
+            unreadByUser.forEach((userId, count) -> {
+                if (count.get() > 0) {
+                    counts.put(userId, count.get());
+                }
+            });
+            total = totalUnread.get();
+        } else {
+            total = 0;
+            for (Long userId : userIds) {
+                long count = getUnreadCount(userId);
+                counts.put(userId, count);
+                total += count;
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total);
+        result.put("counts", counts);
+        return result;
+    }
+
+    // The user's notifications are removed by the database cascade
+    public void onUserDeleted(Long userId) {
+        AtomicLong count = unreadByUser.remove(userId);
+        if (count != null) {
+            totalUnread.addAndGet(-count.get());
+        }
+    }
+
+    private void adjust(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        unreadByUser.computeIfAbsent(userId, id -> new AtomicLong()).addAndGet(delta);
+        totalUnread.addAndGet(delta);
+    }
+}
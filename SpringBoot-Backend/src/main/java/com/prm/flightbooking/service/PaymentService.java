@@ -0,0 +1,86 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Payment;
+import com.prm.flightbooking.entity.Payment.PaymentStatus;
+import com.prm.flightbooking.repository.PaymentRepository;
+import com.prm.flightbooking.service.RevenueRollupService.PaymentState;
+import com.prm.flightbooking.util.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class PaymentService {
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+    
+    @Autowired
+    private AdminEventBroadcaster adminEvents;
+    
+    public Optional<Payment> findById(Long id) {
+        return paymentRepository.findById(id);
+    }
+    
+    public Optional<Payment> findByTransactionId(String transactionId) {
+        return paymentRepository.findByTransactionId(transactionId);
+    }
+    
+    public List<Payment> findByBookingId(Long bookingId) {
+        return paymentRepository.findByBookingId(bookingId);
+    }
+    
+    public List<Payment> findByUserId(Long userId) {
+        return paymentRepository.findByUserId(userId);
+    }
+    
+    public List<Payment> findByStatus(PaymentStatus status) {
+        return paymentRepository.findByStatus(status);
+    }
+    
+    public Payment createPayment(Payment payment) {
+        if (payment.getTransactionId() == null || payment.getTransactionId().isBlank()) {
+            payment.setTransactionId(idGenerator.nextCode("TX"));
+        }
+        Payment saved = revenueRollupService.withPaymentWrite(() -> {
+            Payment written = paymentRepository.save(payment);
+            revenueRollupService.onPaymentChanged(null, PaymentState.of(written));
+            return written;
+        });
+        dashboardCounters.onPaymentChanged(null, null, saved.getStatus(), saved.getAmount());
+        adminEvents.publishPayment(saved);
+        return saved;
+    }
+    
+    public Payment updatePaymentStatus(Long paymentId, PaymentStatus status) {
+        // The read is inside too, so a rebuild cannot land between taking "before" and saving
+        Payment saved = revenueRollupService.withPaymentWrite(() -> {
+            Payment payment = paymentRepository.findById(paymentId)
+                    .orElseThrow(() -> new RuntimeException("Payment not found"));
+            PaymentStatus previous = payment.getStatus();
+            PaymentState before = PaymentState.of(payment);
+            payment.setStatus(status);
+            if (status == PaymentStatus.SUCCESS && payment.getPaymentDate() == null) {
+                payment.setPaymentDate(LocalDateTime.now());
+            }
+            Payment written = paymentRepository.save(payment);
+            dashboardCounters.onPaymentChanged(previous, written.getAmount(), written.getStatus(), written.getAmount());
+            revenueRollupService.onPaymentChanged(before, PaymentState.of(written));
+            return written;
+        });
+        adminEvents.publishPayment(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,309 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Airline;
+import com.prm.flightbooking.entity.Airport;
+import com.prm.flightbooking.entity.Booking.BookingStatus;
+import com.prm.flightbooking.repository.AirlineRepository;
+import com.prm.flightbooking.repository.AirportRepository;
+import com.prm.flightbooking.repository.BookingRepository;
+import com.prm.flightbooking.util.SpaceSaving;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Most-booked routes and airlines from Space-Saving sketches fed with every booking confirmation and
+// drawn down again when a confirmed booking is cancelled or deleted, so they count current bookings like
+// the exact variants do.
+// Each sketch keeps an all-time summary plus one summary per day for the last 30 days; the closed days of
+// a window are merged once per day and only today's summary is merged in per query, so answers cost the
+// same whatever the booking volume. Sketch counts may over-estimate by the reported maxOverestimate;
+// the exact variants group the bookings table and are meant for audits.
+@Component
+public class PopularityTracker {
+
+    private static final int WINDOW_DAYS = 30;
+    private static final LocalDateTime ALL_TIME_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private AirlineRepository airlineRepository;
+
+    @Value("${popularity.sketch-capacity:512}")
+    private int capacity;
+
+    private WindowedSketch<Route> routes;
+    private WindowedSketch<Long> airlines;
+
+    public enum Window {
+        DAYS_7(7), DAYS_30(30), ALL_TIME(0);
+
+        private final int days;
+
+        Window(int days) {
+            this.days = days;
+        }
+
+        public static Window parse(String value) {
+            if (value == null || value.isBlank() || value.equalsIgnoreCase("all")) {
+                return ALL_TIME;
+            }
+            return switch (value.toLowerCase()) {
+                case "7d" -> DAYS_7;
+                case "30d" -> DAYS_30;
+                default -> throw new IllegalArgumentException("Window must be 7d, 30d or all");
+            };
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        routes = new WindowedSketch<>(capacity);
+        airlines = new WindowedSketch<>(capacity);
+        for (Object[] row : bookingRepository.countConfirmedByRouteAndAirline()) {
+            long count = ((Number) row[3]).longValue();
+            routes.offerAllTime(new Route((Long) row[0], (Long) row[1]), count);
+            airlines.offerAllTime((Long) row[2], count);
+        }
+        LocalDate today = LocalDate.now();
+        for (Object[] row : bookingRepository.countConfirmedByRouteAndAirlinePerDaySince(
+                today.minusDays(WINDOW_DAYS - 1).atStartOfDay())) {
+            long day = LocalDate.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue(), ((Number) row[5]).intValue()).toEpochDay();
+            long count = ((Number) row[6]).longValue();
+            routes.offerDay(new Route((Long) row[0], (Long) row[1]), count, day, today.toEpochDay());
+            airlines.offerDay((Long) row[2], count, day, today.toEpochDay());
+        }
+    }
+
+    // Called once per booking when it enters a counted status
+    public void onBookingsConfirmed(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        long today = LocalDate.now().toEpochDay();
+        for (Object[] row : bookingRepository.countByRouteAndAirlineForIdIn(bookingIds)) {
+            long count = ((Number) row[3]).longValue();
+            Route route = new Route((Long) row[0], (Long) row[1]);
+            routes.offerAllTime(route, count);
+            routes.offerDay(route, count, today, today);
+            if (row[2] != null) {
+                airlines.offerAllTime((Long) row[2], count);
+                airlines.offerDay((Long) row[2], count, today, today);
+            }
+        }
+    }
+
+    // Called once per booking that leaves the counted statuses; countedAt is its updatedAt before the change,
+    // which is the day its confirmation was filed under
+    public void onBookingWithdrawn(Long bookingId, LocalDateTime countedAt) {
+        long today = LocalDate.now().toEpochDay();
+        long day = countedAt != null ? countedAt.toLocalDate().toEpochDay() : today;
+        for (Object[] row : bookingRepository.countByRouteAndAirlineForIdIn(List.of(bookingId))) {
+            long count = ((Number) row[3]).longValue();
+            routes.withdraw(new Route((Long) row[0], (Long) row[1]), count, day, today);
+            if (row[2] != null) {
+                airlines.withdraw((Long) row[2], count, day, today);
+            }
+        }
+    }
+
+    // The statuses the sketches and the exact queries count
+    public static boolean isCounted(BookingStatus status) {
+        return status == BookingStatus.CONFIRMED || status == BookingStatus.COMPLETED;
+    }
+
+    public List<Map<String, Object>> getPopularRoutes(Window window, int topCount) {
+        List<SpaceSaving.Estimate<Route>> top = routes.top(window, topCount, LocalDate.now().toEpochDay());
+        List<Object[]> rows = new ArrayList<>(top.size());
+        for (SpaceSaving.Estimate<Route> estimate : top) {
+            rows.add(new Object[]{estimate.key().departureAirportId(), estimate.key().arrivalAirportId(),
+                    estimate.count(), estimate.error()});
+        }
+        return describeRoutes(rows);
+    }
+
+    public List<Map<String, Object>> getPopularRoutesExact(Window window, int topCount) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] row : bookingRepository.findTopRoutesSince(since(window), PageRequest.of(0, topCount))) {
+            rows.add(new Object[]{row[0], row[1], ((Number) row[2]).longValue(), 0L});
+        }
+        return describeRoutes(rows);
+    }
+
+    public List<Map<String, Object>> getPopularAirlines(Window window, int topCount) {
+        List<SpaceSaving.Estimate<Long>> top = airlines.top(window, topCount, LocalDate.now().toEpochDay());
+        List<Object[]> rows = new ArrayList<>(top.size());
+        for (SpaceSaving.Estimate<Long> estimate : top) {
+            rows.add(new Object[]{estimate.key(), estimate.count(), estimate.error()});
+        }
+        return describeAirlines(rows);
+    }
+
+    public List<Map<String, Object>> getPopularAirlinesExact(Window window, int topCount) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] row : bookingRepository.findTopAirlinesSince(since(window), PageRequest.of(0, topCount))) {
+            rows.add(new Object[]{row[0], ((Number) row[1]).longValue(), 0L});
+        }
+        return describeAirlines(rows);
+    }
+
+    private LocalDateTime since(Window window) {
+        return window == Window.ALL_TIME ? ALL_TIME_START : LocalDate.now().minusDays(window.days - 1).atStartOfDay();
+    }
+
+    // Rows are [departureAirportId, arrivalAirportId, bookings, maxOverestimate]
+    private List<Map<String, Object>> describeRoutes(List<Object[]> rows) {
+        Set<Long> airportIds = new HashSet<>();
+        for (Object[] row : rows) {
+            airportIds.add((Long) row[0]);
+            airportIds.add((Long) row[1]);
+        }
+        Map<Long, Airport> airports = airportRepository.findAllById(airportIds).stream()
+                .collect(Collectors.toMap(Airport::getId, Function.identity()));
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Airport departure = airports.get((Long) row[0]);
+            Airport arrival = airports.get((Long) row[1]);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("departureAirportId", row[0]);
+            entry.put("departureAirportCode", departure != null ? departure.getCode() : null);
+            entry.put("departureCity", departure != null ? departure.getCity() : null);
+            entry.put("arrivalAirportId", row[1]);
+            entry.put("arrivalAirportCode", arrival != null ? arrival.getCode() : null);
+            entry.put("arrivalCity", arrival != null ? arrival.getCity() : null);
+            entry.put("bookings", row[2]);
+            entry.put("maxOverestimate", row[3]);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    // Rows are [airlineId, bookings, maxOverestimate]
+    private List<Map<String, Object>> describeAirlines(List<Object[]> rows) {
+        Set<Long> airlineIds = new HashSet<>();
+        for (Object[] row : rows) {
+            airlineIds.add((Long) row[0]);
+        }
+        Map<Long, Airline> byId = airlineRepository.findAllById(airlineIds).stream()
+                .collect(Collectors.toMap(Airline::getId, Function.identity()));
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Airline airline = byId.get((Long) row[0]);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("airlineId", row[0]);
+            entry.put("airlineName", airline != null ? airline.getName() : null);
+            entry.put("airlineCode", airline != null ? airline.getCode() : null);
+            entry.put("bookings", row[1]);
+            entry.put("maxOverestimate", row[2]);
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private record Route(Long departureAirportId, Long arrivalAirportId) {}
+
+    private static final class WindowedSketch<K> {
+
+        private final int capacity;
+        private final SpaceSaving<K> allTime;
+        private final List<SpaceSaving<K>> days;
+        private final long[] dayOf = new long[WINDOW_DAYS];
+        // Merged closed days (up to yesterday) of each window, valid while mergedFor equals today
+        private final Map<Window, SpaceSaving<K>> merged = new LinkedHashMap<>();
+        private long mergedFor = Long.MIN_VALUE;
+
+        WindowedSketch(int capacity) {
+            this.capacity = capacity;
+            this.allTime = new SpaceSaving<>(capacity);
+            this.days = new ArrayList<>(Collections.nCopies(WINDOW_DAYS, null));
+            Arrays.fill(dayOf, Long.MIN_VALUE);
+        }
+
+        synchronized void offerAllTime(K key, long weight) {
+            allTime.offer(key, weight);
+        }
+
+        synchronized void offerDay(K key, long weight, long day, long today) {
+            if (day > today || day <= today - WINDOW_DAYS) {
+                return;
+            }
+            slot(day).offer(key, weight);
+            if (day < today) {
+                mergedFor = Long.MIN_VALUE;
+            }
+        }
+
+        synchronized void withdraw(K key, long weight, long day, long today) {
+            allTime.remove(key, weight);
+            SpaceSaving<K> daySketch = day > today ? null : existing(day);
+            if (daySketch != null) {
+                daySketch.remove(key, weight);
+                if (day < today) {
+                    mergedFor = Long.MIN_VALUE;
+                }
+            }
+        }
+
+        synchronized List<SpaceSaving.Estimate<K>> top(Window window, int k, long today) {
+            if (window == Window.ALL_TIME) {
+                return allTime.top(k);
+            }
+            if (mergedFor != today) {
+                merged.clear();
+                for (Window w : Window.values()) {
+                    if (w != Window.ALL_TIME) {
+                        SpaceSaving<K> sketch = new SpaceSaving<>(capacity);
+                        for (long day = today - w.days + 1; day < today; day++) {
+                            SpaceSaving<K> daySketch = existing(day);
+                            if (daySketch != null) {
+                                sketch.merge(daySketch);
+                            }
+                        }
+                        merged.put(w, sketch);
+                    }
+                }
+                mergedFor = today;
+            }
+            SpaceSaving<K> result = merged.get(window).copy();
+            SpaceSaving<K> current = existing(today);
+            if (current != null) {
+                result.merge(current);
+            }
+            return result.top(k);
+        }
+
+        private SpaceSaving<K> existing(long day) {
+            int i = (int) Math.floorMod(day, (long) WINDOW_DAYS);
+            return dayOf[i] == day ? days.get(i) : null;
+        }
+
+        private SpaceSaving<K> slot(long day) {
+            int i = (int) Math.floorMod(day, (long) WINDOW_DAYS);
+            if (dayOf[i] != day) {
+                days.set(i, new SpaceSaving<>(capacity));
+                dayOf[i] = day;
+            }
+            return days.get(i);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Payment;
+import com.prm.flightbooking.entity.Payment.PaymentMethod;
+import com.prm.flightbooking.entity.Payment.PaymentStatus;
+import com.prm.flightbooking.entity.RevenueRollup;
+import com.prm.flightbooking.entity.RevenueRollup.Granularity;
+import com.prm.flightbooking.repository.PaymentRepository;
+import com.prm.flightbooking.repository.RevenueRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Keeps revenue_rollups in step with payments: every state change moves the payment's count and amount
+// out of its old day/month/year buckets and into the new ones, so a year of revenue is read from a few
+// hundred rows. rebuild() recomputes the whole table from one grouped query over payments; it runs at
+// startup when the table is empty and can be triggered by an admin after bulk imports or repairs.
+// Payment writes go through withPaymentWrite, so a row change and its bucket update always land on the
+// same side of a rebuild and the rebuild's snapshot never sees one without the other.
+@Service
+public class RevenueRollupService {
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Payment writes and their incremental updates share the lock; a rebuild takes it exclusively
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (revenueRollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    // Runs a payment insert, update or delete, together with its onPaymentChanged call, outside any rebuild
+    public <T> T withPaymentWrite(Supplier<T> write) {
+        rebuildLock.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    // before is null for a new payment, after is null for a deleted one
+    public void onPaymentChanged(PaymentState before, PaymentState after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            if (before != null) {
+                add(before, -1, before.amount().negate());
+            }
+            if (after != null) {
+                add(after, 1, after.amount());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    // Returns the number of bucket rows written
+    public int rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            Map<BucketKey, RevenueRollup> buckets = new HashMap<>();
+            for (Object[] row : paymentRepository.summarizeByDay()) {
+                LocalDate day = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+                PaymentMethod method = (PaymentMethod) row[3];
+                PaymentStatus status = (PaymentStatus) row[4];
+                long count = ((Number) row[5]).longValue();
+                BigDecimal amount = row[6] != null ? (BigDecimal) row[6] : BigDecimal.ZERO;
+                for (Granularity granularity : Granularity.values()) {
+                    BucketKey key = new BucketKey(granularity, granularity.bucketOf(day), method, status);
+                    RevenueRollup bucket = buckets.computeIfAbsent(key, k ->
+                            new RevenueRollup(k.granularity(), k.bucketStart(), k.method(), k.status(), 0L, BigDecimal.ZERO));
+                    bucket.setPaymentCount(bucket.getPaymentCount() + count);
+                    bucket.setAmount(bucket.getAmount().add(amount));
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                revenueRollupRepository.deleteAllBuckets();
+                revenueRollupRepository.saveAll(buckets.values());
+            });
+            return buckets.size();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    // Revenue counts SUCCESS payments only; the status breakdown covers everything
+    public Map<String, Object> getYear(int year) {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = LocalDate.of(year, 12, 31);
+        List<RevenueRollup> rows = revenueRollupRepository.findBuckets(
+                List.of(Granularity.DAY, Granularity.MONTH, Granularity.YEAR), from, to);
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalPayments = 0;
+        long successfulPayments = 0;
+        Map<PaymentMethod, BigDecimal> byMethod = new EnumMap<>(PaymentMethod.class);
+        Map<PaymentStatus, Map<String, Object>> byStatus = new EnumMap<>(PaymentStatus.class);
+        BigDecimal[] monthRevenue = new BigDecimal[12];
+        long[] monthPayments = new long[12];
+        Map<LocalDate, BigDecimal> dayRevenue = new TreeMap<>();
+        Map<LocalDate, Long> dayPayments = new TreeMap<>();
+
+        for (RevenueRollup row : rows) {
+            boolean success = row.getStatus() == PaymentStatus.SUCCESS;
+            switch (row.getGranularity()) {
+                case YEAR -> {
+                    totalPayments += row.getPaymentCount();
+                    Map<String, Object> status = byStatus.computeIfAbsent(row.getStatus(), s -> new LinkedHashMap<>(
+                            Map.of("count", 0L, "amount", BigDecimal.ZERO)));
+                    status.put("count", (Long) status.get("count") + row.getPaymentCount());
+                    status.put("amount", ((BigDecimal) status.get("amount")).add(row.getAmount()));
+                    if (success) {
+                        successfulPayments += row.getPaymentCount();
+                        totalRevenue = totalRevenue.add(row.getAmount());
+                        byMethod.merge(row.getPaymentMethod(), row.getAmount(), BigDecimal::add);
+                    }
+                }
+                case MONTH -> {
+                    if (success) {
+                        int month = row.getBucketStart().getMonthValue() - 1;
+                        monthRevenue[month] = (monthRevenue[month] != null ? monthRevenue[month] : BigDecimal.ZERO).add(row.getAmount());
+                        monthPayments[month] += row.getPaymentCount();
+                    }
+                }
+                case DAY -> {
+                    if (success) {
+                        dayRevenue.merge(row.getBucketStart(), row.getAmount(), BigDecimal::add);
+                        dayPayments.merge(row.getBucketStart(), row.getPaymentCount(), Long::sum);
+                    }
+                }
+            }
+        }
+
+        List<Map<String, Object>> monthly = new ArrayList<>(12);
+        for (int month = 0; month < 12; month++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("month", month + 1);
+            entry.put("revenue", monthRevenue[month] != null ? monthRevenue[month] : BigDecimal.ZERO);
+            entry.put("payments", monthPayments[month]);
+            monthly.add(entry);
+        }
+        List<Map<String, Object>> daily = new ArrayList<>(dayRevenue.size());
+        for (Map.Entry<LocalDate, BigDecimal> day : dayRevenue.entrySet()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", day.getKey());
+            entry.put("revenue", day.getValue());
+            entry.put("payments", dayPayments.get(day.getKey()));
+            daily.add(entry);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("year", year);
+        result.put("totalRevenue", totalRevenue);
+        result.put("totalPayments", totalPayments);
+        result.put("successfulPayments", successfulPayments);
+        result.put("byMethod", byMethod);
+        result.put("byStatus", byStatus);
+        result.put("monthly", monthly);
+        result.put("daily", daily);
+        return result;
+    }
+
+    private void add(PaymentState state, long count, BigDecimal amount) {
+        // Payments without a method cannot be bucketed; summarizeByDay skips them the same way
+        if (state.method() == null || state.status() == null || state.date() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Granularity granularity : Granularity.values()) {
+            LocalDate bucketStart = granularity.bucketOf(state.date());
+            if (revenueRollupRepository.addToBucket(granularity, bucketStart, state.method(), state.status(), count, amount, now) > 0) {
+                continue;
+            }
+            try {
+                revenueRollupRepository.saveAndFlush(
+                        new RevenueRollup(granularity, bucketStart, state.method(), state.status(), count, amount));
+            } catch (DataIntegrityViolationException e) {
+                // Another writer created the bucket first
+                revenueRollupRepository.addToBucket(granularity, bucketStart, state.method(), state.status(), count, amount, now);
+            }
+        }
+    }
+
+    private record BucketKey(Granularity granularity, LocalDate bucketStart, PaymentMethod method, PaymentStatus status) {}
+
+    // The fields of a payment its buckets depend on, captured before and after a write
+    public record PaymentState(PaymentMethod method, PaymentStatus status, BigDecimal amount, LocalDate date) {
+
+        public PaymentState {
+            amount = amount != null ? amount : BigDecimal.ZERO;
+        }
+
+        public static PaymentState of(Payment payment) {
+            return of(payment.getPaymentMethod(), payment.getStatus(), payment.getAmount(),
+                    payment.getPaymentDate(), payment.getCreatedAt());
+        }
+
+        public static PaymentState of(PaymentMethod method, PaymentStatus status, BigDecimal amount,
+                                      LocalDateTime paymentDate, LocalDateTime createdAt) {
+            LocalDateTime dated = paymentDate != null ? paymentDate : createdAt;
+            return new PaymentState(method, status, amount, dated != null ? dated.toLocalDate() : null);
+        }
+    }
+}
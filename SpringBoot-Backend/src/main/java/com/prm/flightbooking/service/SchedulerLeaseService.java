@@ -0,0 +1,57 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.SchedulerLease;
+import com.prm.flightbooking.repository.SchedulerLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Leader election for scheduled jobs through a row per job in scheduler_leases.
+// A node runs a job only while it holds the lease; a crashed leader's lease simply runs out.
+@Service
+public class SchedulerLeaseService {
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    private final String owner = hostName() + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        if (schedulerLeaseRepository.tryAcquire(name, owner, now, now.plus(ttl)) == 1) {
+            return true;
+        }
+        if (schedulerLeaseRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            schedulerLeaseRepository.saveAndFlush(new SchedulerLease(name, owner, now.plus(ttl)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the row first
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        schedulerLeaseRepository.release(name, owner);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.dto.FlightResponse;
+import com.prm.flightbooking.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Caches route searches per departure day. An entry holds every flight on the route departing on or after
+// the start of that day, so a change to a flight on day D invalidates that route's entries for days <= D only.
+@Component
+public class SearchResultCache {
+
+    private final BoundedCache<SearchKey, List<FlightResponse>> cache;
+    private final Map<RouteKey, NavigableSet<LocalDate>> cachedDays = new ConcurrentHashMap<>();
+    private final Map<RouteKey, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public SearchResultCache(@Value("${flight.search.cache.max-entries:2000}") int maxEntries,
+                             @Value("${flight.search.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new BoundedCache<>(maxEntries, ttlSeconds * 1000);
+    }
+
+    public List<FlightResponse> get(Long departureAirportId, Long arrivalAirportId, LocalDate day,
+                                    Supplier<List<FlightResponse>> loader) {
+        RouteKey route = new RouteKey(departureAirportId, arrivalAirportId);
+        SearchKey key = new SearchKey(route, day);
+        List<FlightResponse> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Skip the put if the route was invalidated while loading, so a stale result is never cached
+        AtomicLong generation = generations.computeIfAbsent(route, r -> new AtomicLong());
+        long before = generation.get();
+        List<FlightResponse> loaded = List.copyOf(loader.get());
+        synchronized (generation) {
+            if (generation.get() == before) {
+                cache.put(key, loaded);
+                cachedDays.computeIfAbsent(route, r -> new ConcurrentSkipListSet<>()).add(day);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(FlightSearchIndex.Placement placement) {
+        if (placement == null) {
+            return;
+        }
+        RouteKey route = new RouteKey(placement.departureAirportId(), placement.arrivalAirportId());
+        AtomicLong generation = generations.computeIfAbsent(route, r -> new AtomicLong());
+        synchronized (generation) {
+            generation.incrementAndGet();
+            NavigableSet<LocalDate> days = cachedDays.get(route);
+            if (days == null) {
+                return;
+            }
+            NavigableSet<LocalDate> affected = days.headSet(placement.departureTime().toLocalDate(), true);
+            for (LocalDate day : affected) {
+                cache.invalidate(new SearchKey(route, day));
+            }
+            affected.clear();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+
+    private record RouteKey(long departureAirportId, long arrivalAirportId) {}
+
+    private record SearchKey(RouteKey route, LocalDate day) {}
+}
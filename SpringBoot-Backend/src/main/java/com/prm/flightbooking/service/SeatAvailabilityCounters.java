@@ -0,0 +1,105 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Seat.SeatClass;
+import com.prm.flightbooking.entity.Seat.SeatStatus;
+import com.prm.flightbooking.repository.SeatRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Per-flight available-seat counts per SeatClass, loaded with one grouped query
+// and kept current by SeatService as seats are added, removed or change status.
+@Component
+public class SeatAvailabilityCounters {
+    
+    private static final int CLASSES = SeatClass.values().length;
+    
+    @Autowired
+    private SeatRepository seatRepository;
+    
+    private final Map<Long, AtomicIntegerArray> available = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, AtomicIntegerArray> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : seatRepository.countSeatsGroupedByFlightClassAndStatus()) {
+            if (row[0] == null) {
+                continue;
+            }
+            AtomicIntegerArray counts = loaded.computeIfAbsent((Long) row[0], id -> new AtomicIntegerArray(CLASSES));
+            if (row[1] != null && row[2] == SeatStatus.AVAILABLE) {
+                counts.addAndGet(((SeatClass) row[1]).ordinal(), ((Long) row[3]).intValue());
+            }
+        }
+        available.clear();
+        available.putAll(loaded);
+    }
+    
+    public boolean hasSeatMap(Long flightId) {
+        return available.containsKey(flightId);
+    }
+    
+    // Available seats in the class, or across all classes when seatClass is null; -1 when the flight has no seat map
+    public int available(Long flightId, SeatClass seatClass) {
+        AtomicIntegerArray counts = available.get(flightId);
+        if (counts == null) {
+            return -1;
+        }
+        if (seatClass != null) {
+            return counts.get(seatClass.ordinal());
+        }
+        int total = 0;
+        for (int i = 0; i < CLASSES; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+    
+    public void onSeatAdded(Long flightId, SeatClass seatClass, SeatStatus status) {
+        if (flightId == null) {
+            return;
+        }
+        AtomicIntegerArray counts = available.computeIfAbsent(flightId, id -> new AtomicIntegerArray(CLASSES));
+        if (seatClass != null && status == SeatStatus.AVAILABLE) {
+            counts.incrementAndGet(seatClass.ordinal());
+        }
+    }
+    
+    public void onSeatRemoved(Long flightId, SeatClass seatClass, SeatStatus status) {
+        onStatusChanged(flightId, seatClass, status, null);
+    }
+    
+    public void onStatusChanged(Long flightId, SeatClass seatClass, SeatStatus from, SeatStatus to) {
+        if (flightId == null || seatClass == null || from == to) {
+            return;
+        }
+        AtomicIntegerArray counts = available.get(flightId);
+        if (counts == null) {
+            return;
+        }
+        if (from == SeatStatus.AVAILABLE) {
+            counts.decrementAndGet(seatClass.ordinal());
+        } else if (to == SeatStatus.AVAILABLE) {
+            counts.incrementAndGet(seatClass.ordinal());
+        }
+    }
+    
+    // Bulk OCCUPIED -> AVAILABLE transition applied by a set-based update
+    public void onSeatsReleased(Long flightId, SeatClass seatClass, int count) {
+        if (flightId == null || seatClass == null || count <= 0) {
+            return;
+        }
+        AtomicIntegerArray counts = available.get(flightId);
+        if (counts != null) {
+            counts.addAndGet(seatClass.ordinal(), count);
+        }
+    }
+    
+    public void onFlightRemoved(Long flightId) {
+        available.remove(flightId);
+    }
+}
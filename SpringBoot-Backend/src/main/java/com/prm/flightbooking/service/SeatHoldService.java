@@ -0,0 +1,267 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Seat;
+import com.prm.flightbooking.entity.Seat.SeatStatus;
+import com.prm.flightbooking.repository.SeatRepository;
+import com.prm.flightbooking.util.StripedLocks;
+import com.prm.flightbooking.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Time-limited holds on specific seats while the customer pays. Hold state lives in memory and is guarded
+// per flight by a lock stripe, so concurrent requests for one hot flight never double-hold a seat and
+// requests for other flights do not contend. Expired holds are released by a timing wheel, not a table scan.
+// Held seats are bought by placing a booking with the hold id; BookingPipeline claims the hold for that write.
+@Service
+public class SeatHoldService {
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Value("${seat.hold.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    @Value("${seat.hold.max-seats:9}")
+    private int maxSeatsPerHold;
+
+    @Value("${seat.hold.tick-millis:100}")
+    private long tickMillis;
+
+    private final StripedLocks flightLocks = new StripedLocks(256);
+    private final Map<Long, Map<Long, Hold>> heldSeats = new ConcurrentHashMap<>();
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    private TimingWheel<Hold> expiryWheel;
+
+    @PostConstruct
+    public void start() {
+        expiryWheel = new TimingWheel<>("seat-hold-expiry", tickMillis, 512, this::expire);
+    }
+
+    @PreDestroy
+    public void stop() {
+        expiryWheel.stop();
+    }
+
+    public Hold placeHold(Long flightId, List<Long> seatIds, Long userId) {
+        if (flightId == null || seatIds == null || seatIds.isEmpty()) {
+            throw new RuntimeException("Flight and seats are required");
+        }
+        Set<Long> requested = new LinkedHashSet<>(seatIds);
+        if (requested.contains(null) || requested.size() != seatIds.size()) {
+            throw new RuntimeException("Seat list contains invalid or duplicate ids");
+        }
+        if (requested.size() > maxSeatsPerHold) {
+            throw new RuntimeException("At most " + maxSeatsPerHold + " seats can be held at once");
+        }
+
+        List<Seat> seats = seatRepository.findAllById(requested);
+        if (seats.size() != requested.size()) {
+            throw new RuntimeException("Seat not found");
+        }
+        for (Seat seat : seats) {
+            if (seat.getFlight() == null || !flightId.equals(seat.getFlight().getId())) {
+                throw new RuntimeException("Seat " + seat.getId() + " does not belong to this flight");
+            }
+            if (seat.getStatus() != SeatStatus.AVAILABLE) {
+                throw new RuntimeException("Seat " + seat.getSeatNumber() + " is not available");
+            }
+        }
+
+        long expiresAt = System.currentTimeMillis() + holdTtlSeconds * 1000;
+        Hold hold = new Hold(UUID.randomUUID().toString(), flightId, userId, List.copyOf(requested), expiresAt);
+        ReentrantLock lock = flightLocks.get(flightId);
+        lock.lock();
+        try {
+            Map<Long, Hold> flightHolds = heldSeats.computeIfAbsent(flightId, id -> new HashMap<>());
+            for (Long seatId : requested) {
+                if (flightHolds.containsKey(seatId)) {
+                    throw new RuntimeException("Seat " + seatId + " is already held");
+                }
+            }
+            for (Long seatId : requested) {
+                flightHolds.put(seatId, hold);
+            }
+            holds.put(hold.holdId, hold);
+            hold.timeout = expiryWheel.schedule(hold, expiresAt - System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+        return hold;
+    }
+
+    public Hold findHold(String holdId) {
+        return holdId != null ? holds.get(holdId) : null;
+    }
+
+    public Set<Long> findHeldSeatIds(Long flightId) {
+        ReentrantLock lock = flightLocks.get(flightId);
+        lock.lock();
+        try {
+            Map<Long, Hold> flightHolds = heldSeats.get(flightId);
+            return flightHolds != null ? Set.copyOf(flightHolds.keySet()) : Set.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void releaseHold(String holdId, Long userId) {
+        Hold hold = requireHold(holdId, userId);
+        ReentrantLock lock = flightLocks.get(hold.flightId);
+        lock.lock();
+        try {
+            if (hold.confirming) {
+                throw new RuntimeException("Hold is being confirmed");
+            }
+            if (hold.timeout != null) {
+                hold.timeout.cancel();
+            }
+            drop(hold);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reserves the hold for a write that is about to sell its seats, so it cannot expire or be released
+    // meanwhile. Must be followed by completeClaim or releaseClaim.
+    public Hold claimHold(String holdId, Long userId) {
+        Hold hold = requireHold(holdId, userId);
+        ReentrantLock lock = flightLocks.get(hold.flightId);
+        lock.lock();
+        try {
+            if (holds.get(holdId) != hold || hold.confirming) {
+                throw new RuntimeException("Hold not found or expired");
+            }
+            hold.confirming = true;
+            if (hold.timeout != null) {
+                hold.timeout.cancel();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return hold;
+    }
+
+    // The seats were sold
+    public void completeClaim(Hold hold) {
+        ReentrantLock lock = flightLocks.get(hold.flightId);
+        lock.lock();
+        try {
+            drop(hold);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The write failed; the hold runs out its remaining time as usual
+    public void releaseClaim(Hold hold) {
+        ReentrantLock lock = flightLocks.get(hold.flightId);
+        lock.lock();
+        try {
+            if (holds.get(hold.holdId) != hold || !hold.confirming) {
+                return;
+            }
+            hold.confirming = false;
+            long remaining = hold.expiresAtMillis - System.currentTimeMillis();
+            if (remaining > 0) {
+                hold.timeout = expiryWheel.schedule(hold, remaining);
+            } else {
+                drop(hold);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("activeHolds", holds.size());
+        stats.put("pendingExpirations", expiryWheel.pending());
+        stats.put("holdTtlSeconds", holdTtlSeconds);
+        return stats;
+    }
+
+    private Hold requireHold(String holdId, Long userId) {
+        Hold hold = findHold(holdId);
+        if (hold == null) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        if (!Objects.equals(hold.userId, userId)) {
+            throw new RuntimeException("Hold belongs to another user");
+        }
+        return hold;
+    }
+
+    // Called on the wheel thread; a claimed hold is left to the booking that claimed it
+    private void expire(Hold hold) {
+        ReentrantLock lock = flightLocks.get(hold.flightId);
+        lock.lock();
+        try {
+            if (!hold.confirming) {
+                drop(hold);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the flight's lock
+    private void drop(Hold hold) {
+        if (!holds.remove(hold.holdId, hold)) {
+            return;
+        }
+        Map<Long, Hold> flightHolds = heldSeats.get(hold.flightId);
+        if (flightHolds == null) {
+            return;
+        }
+        for (Long seatId : hold.seatIds) {
+            flightHolds.remove(seatId, hold);
+        }
+        if (flightHolds.isEmpty()) {
+            heldSeats.remove(hold.flightId);
+        }
+    }
+
+    public static final class Hold {
+        private final String holdId;
+        private final Long flightId;
+        private final Long userId;
+        private final List<Long> seatIds;
+        private final long expiresAtMillis;
+        private volatile boolean confirming;
+        private TimingWheel.Timeout<Hold> timeout;
+
+        Hold(String holdId, Long flightId, Long userId, List<Long> seatIds, long expiresAtMillis) {
+            this.holdId = holdId;
+            this.flightId = flightId;
+            this.userId = userId;
+            this.seatIds = seatIds;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getHoldId() { return holdId; }
+        public Long getFlightId() { return flightId; }
+        public Long getUserId() { return userId; }
+        public List<Long> getSeatIds() { return seatIds; }
+
+        public LocalDateTime getExpiresAt() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.prm.flightbooking.service;
+
+import com.prm.flightbooking.entity.Seat;
+import com.prm.flightbooking.entity.Seat.SeatClass;
+import com.prm.flightbooking.entity.Seat.SeatStatus;
+import com.prm.flightbooking.repository.SeatRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class SeatService {
+    
+    @Autowired
+    private SeatRepository seatRepository;
+    
+    @Autowired
+    private SeatAvailabilityCounters seatAvailabilityCounters;
+    
+    public Optional<Seat> findById(Long id) {
+        return seatRepository.findById(id);
+    }
+    
+    public List<Seat> findByFlightId(Long flightId) {
+        return seatRepository.findByFlightId(flightId);
+    }
+    
+    public List<Seat> findAvailableSeats(Long flightId) {
+        return seatRepository.findAvailableSeatsByFlightId(flightId);
+    }
+    
+    public List<Seat> findAvailableSeats(Long flightId, SeatClass seatClass) {
+        return seatRepository.findAvailableSeatsByFlightIdAndClass(flightId, seatClass);
+    }
+    
+    public Seat createSeat(Seat seat) {
+        Seat saved = seatRepository.save(seat);
+        seatAvailabilityCounters.onSeatAdded(flightIdOf(saved), saved.getSeatClass(), saved.getStatus());
+        return saved;
+    }
+    
+    // Compare-and-set on the status read, so a concurrent change is reported instead of overwritten
+    public Seat updateSeatStatus(Long seatId, SeatStatus status) {
+        Seat seat = seatRepository.findById(seatId)
+                .orElseThrow(() -> new RuntimeException("Seat not found"));
+        SeatStatus previous = seat.getStatus();
+        if (previous == status) {
+            return seat;
+        }
+        if (seatRepository.updateStatusIfCurrent(List.of(seatId), previous, status, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Seat status was changed by another request");
+        }
+        seat.setStatus(status);
+        seat.setVersion(seat.getVersion() + 1);
+        seatAvailabilityCounters.onStatusChanged(flightIdOf(seat), seat.getSeatClass(), previous, status);
+        return seat;
+    }
+    
+    public void deleteSeat(Long seatId) {
+        seatRepository.findById(seatId).ifPresent(seat -> {
+            seatRepository.delete(seat);
+            seatAvailabilityCounters.onSeatRemoved(flightIdOf(seat), seat.getSeatClass(), seat.getStatus());
+        });
+    }
+    
+    public int countAvailableSeats(Long flightId, SeatClass seatClass) {
+        return seatAvailabilityCounters.available(flightId, seatClass);
+    }
+    
+    private Long flightIdOf(Seat seat) {
+        return seat.getFlight() != null ? seat.getFlight().getId() : null;
+    }
+}
@@ -21,6 +21,15 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private AuthPrincipalCache authPrincipalCache;
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsernameOrEmail(username, username)
@@ -30,7 +39,9 @@ public class UserService implements UserDetailsService {
     
     public User createUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        dashboardCounters.onUserCreated();
+        return saved;
     }
     
     public Optional<User> findByUsername(String username) {
@@ -50,11 +61,19 @@ public class UserService implements UserDetailsService {
     }
     
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // The role may have changed; cached principals are reloaded on their next request
+        authPrincipalCache.evictUser(saved.getId());
+        return saved;
     }
     
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        if (userRepository.existsById(id)) {
+            userRepository.deleteById(id);
+            dashboardCounters.onUserDeleted();
+            notificationService.onUserDeleted(id);
+            authPrincipalCache.evictUser(id);
+        }
     }
     
     public boolean existsByUsername(String username) {
@@ -69,6 +88,8 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setPassword(passwordEncoder.encode(newPassword));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        authPrincipalCache.evictUser(userId);
+        return saved;
     }
 }
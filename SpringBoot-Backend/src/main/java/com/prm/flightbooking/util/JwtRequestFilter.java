@@ -1,6 +1,9 @@
 package com.prm.flightbooking.util;
 
+import com.prm.flightbooking.entity.User;
+import com.prm.flightbooking.service.AuthPrincipalCache;
 import com.prm.flightbooking.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,34 +28,56 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private AuthPrincipalCache authPrincipalCache;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain chain) throws ServletException, IOException {
         
         final String requestTokenHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwtToken = null;
-        
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                logger.error("Unable to get JWT Token or JWT Token has expired");
+        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwtToken = requestTokenHeader.substring(7);
+            String tokenHash = AuthPrincipalCache.hash(jwtToken);
+            // A cached token was verified before and has not expired: no parsing and no user lookup
+            User user = authPrincipalCache.get(tokenHash);
+            if (user == null) {
+                user = authPrincipalCache.load(tokenHash, () -> verify(jwtToken));
             }
-        }
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(username);
-            
-            if (jwtUtil.validateToken(jwtToken, userDetails)) {
+            if (user != null) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
             }
         }
         chain.doFilter(request, response);
     }
+    
+    // One signature check and one user lookup
+    private AuthPrincipalCache.Verified verify(String jwtToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.getAllClaimsFromToken(jwtToken);
+        } catch (Exception e) {
+            logger.error("Unable to get JWT Token or JWT Token has expired");
+            return null;
+        }
+        String username = claims.getSubject();
+        if (username == null || claims.getExpiration() == null) {
+            return null;
+        }
+        UserDetails userDetails;
+        try {
+            userDetails = userService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        if (!(userDetails instanceof User user) || !username.equals(user.getUsername())) {
+            return null;
+        }
+        return new AuthPrincipalCache.Verified(user, claims.getExpiration().getTime());
+    }
 }
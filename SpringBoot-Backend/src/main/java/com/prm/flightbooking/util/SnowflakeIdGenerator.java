@@ -0,0 +1,64 @@
+package com.prm.flightbooking.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time-ordered 64-bit ids: 41 bits of milliseconds since 2024-01-01 UTC, 10 bits of node id and a 12-bit
+// per-millisecond sequence. Generation is a CAS on a single word, so callers never block on a lock.
+// If the clock steps backwards the generator keeps counting from the last timestamp it issued.
+public class SnowflakeIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long node;
+    // (timestamp << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long lastTime = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTime) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond or clock moved back: take the next sequence, spilling into the next millisecond
+                next = last + 1;
+            }
+            if (state.compareAndSet(last, next)) {
+                long time = next >>> SEQUENCE_BITS;
+                return (time << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // Prefix plus the id in fixed-width Crockford base32, so the strings sort in issue order
+    public String nextCode(String prefix) {
+        return prefix + toBase32(nextId());
+    }
+
+    public long getNode() {
+        return node;
+    }
+
+    static String toBase32(long value) {
+        char[] out = new char[13];
+        for (int i = out.length - 1; i >= 0; i--) {
+            out[i] = BASE32[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,136 @@
+package com.prm.flightbooking.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Space-Saving heavy-hitter sketch: tracks at most `capacity` keys; an unseen key takes over the smallest
+// counter and inherits its count as its error bound. Every key whose true weight exceeds total/capacity is
+// tracked, and a reported count over-estimates the true one by at most its error. Weight can be taken back
+// with remove(); an unseen key then inherits at least the largest count evicted so far, which keeps the
+// over-estimate guarantee once counters have shrunk. Not thread-safe.
+public class SpaceSaving<K> {
+
+    private final int capacity;
+    private final Map<K, Counter<K>> counters;
+    private final TreeSet<Counter<K>> ordered = new TreeSet<>(
+            Comparator.<Counter<K>>comparingLong(counter -> counter.count).thenComparingLong(counter -> counter.seq));
+    private long total;
+    private long nextSeq;
+    // Upper bound on the true weight of any key not currently tracked
+    private long evictedFloor;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.counters = new HashMap<>(this.capacity * 2);
+    }
+
+    public void offer(K key, long weight) {
+        offer(key, weight, 0);
+    }
+
+    // Adds another sketch's counters, e.g. to combine per-day sketches into a window
+    public void merge(SpaceSaving<K> other) {
+        evictedFloor += other.evictedFloor;
+        for (Counter<K> counter : other.counters.values()) {
+            offer(counter.key, counter.count, counter.error);
+        }
+    }
+
+    public SpaceSaving<K> copy() {
+        SpaceSaving<K> copy = new SpaceSaving<>(capacity);
+        copy.merge(this);
+        return copy;
+    }
+
+    // Takes back weight offered earlier, e.g. for a booking that was cancelled
+    public void remove(K key, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total = Math.max(0, total - weight);
+        Counter<K> counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        ordered.remove(counter);
+        counter.count = Math.max(0, counter.count - weight);
+        counter.error = Math.min(counter.error, counter.count);
+        if (counter.count == 0) {
+            counters.remove(key);
+            return;
+        }
+        counter.seq = nextSeq++;
+        ordered.add(counter);
+    }
+
+    public List<Estimate<K>> top(int k) {
+        List<Estimate<K>> top = new ArrayList<>(Math.min(k, counters.size()));
+        Iterator<Counter<K>> it = ordered.descendingIterator();
+        while (it.hasNext() && top.size() < k) {
+            Counter<K> counter = it.next();
+            top.add(new Estimate<>(counter.key, counter.count, counter.error));
+        }
+        return top;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public void clear() {
+        counters.clear();
+        ordered.clear();
+        total = 0;
+        evictedFloor = 0;
+    }
+
+    private void offer(K key, long weight, long error) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+        Counter<K> counter = counters.get(key);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count += weight;
+            counter.error += error;
+        } else if (counters.size() < capacity) {
+            counter = new Counter<>(key, weight, error);
+            counters.put(key, counter);
+        } else {
+            Counter<K> smallest = ordered.pollFirst();
+            counters.remove(smallest.key);
+            long inherited = Math.max(smallest.count, evictedFloor);
+            evictedFloor = inherited;
+            counter = new Counter<>(key, inherited + weight, inherited + error);
+            counters.put(key, counter);
+        }
+        counter.seq = nextSeq++;
+        ordered.add(counter);
+    }
+
+    public record Estimate<K>(K key, long count, long error) {}
+
+    private static final class Counter<K> {
+
+        private final K key;
+        private long count;
+        private long error;
+        private long seq;
+
+        Counter(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.prm.flightbooking.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed pool of locks addressed by key hash: per-key mutual exclusion without a lock object per key.
+// Unrelated keys may share a stripe, so never hold two stripes at once.
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(2, stripes) - 1) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock get(long key) {
+        int h = Long.hashCode(key);
+        h ^= h >>> 16;
+        h *= 0x45d9f3b;
+        h ^= h >>> 16;
+        return locks[h & mask];
+    }
+}
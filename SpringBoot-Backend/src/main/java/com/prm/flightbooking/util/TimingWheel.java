@@ -0,0 +1,198 @@
+package com.prm.flightbooking.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel. Level 0 has one bucket per tick; each higher level has buckets as wide as a full
+// revolution of the level below, and its entries cascade down when their bucket comes round. Scheduling and
+// cancelling are O(1), each tick visits one level-0 bucket, and deadlines hours or days away cost nothing
+// until they get close. New timeouts are handed to the worker through a lock-free queue; buckets are only
+// touched by the worker thread.
+public class TimingWheel<T> {
+
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    // buckets.get(level).get(slot)
+    private final List<List<Queue<Timeout<T>>>> buckets;
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpire;
+    private final Thread worker;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final long startMillis;
+    private volatile boolean running = true;
+    private long tick;
+
+    public TimingWheel(String name, long tickMillis, int wheelSize, Consumer<T> onExpire) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.tickMillis = Math.max(1, tickMillis);
+        this.bits = Integer.numberOfTrailingZeros(size);
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(LEVELS);
+        for (int level = 0; level < LEVELS; level++) {
+            List<Queue<Timeout<T>>> wheel = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                wheel.add(new ArrayDeque<>());
+            }
+            buckets.add(wheel);
+        }
+        this.onExpire = onExpire;
+        this.startMillis = System.currentTimeMillis();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout<T> schedule(T item, long delayMillis) {
+        long deadline = System.currentTimeMillis() + Math.max(0, delayMillis);
+        // Rounded up, so a timeout never fires before its deadline
+        long dueTick = Math.max(0, (deadline - startMillis + tickMillis - 1) / tickMillis - 1);
+        Timeout<T> timeout = new Timeout<>(item, deadline, dueTick, pending);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startMillis + (tick + 1) * tickMillis;
+            long sleep = deadline - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            Timeout<T> timeout;
+            while ((timeout = incoming.poll()) != null) {
+                if (!timeout.isCancelled()) {
+                    place(timeout);
+                }
+            }
+            cascade();
+            expire(buckets.get(0).get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    // When level L's position wraps, the next bucket of level L+1 is redistributed into the levels below.
+    // Higher levels go first so their entries can fall through to a bucket that is cascaded in the same tick.
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < LEVELS && (tick & ((1L << ((top + 1) * bits)) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Queue<Timeout<T>> bucket = buckets.get(level).get((int) ((tick >>> (level * bits)) & mask));
+            Timeout<T> timeout;
+            while ((timeout = bucket.poll()) != null) {
+                if (!timeout.isCancelled()) {
+                    place(timeout);
+                }
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long due = Math.max(tick, timeout.dueTick);
+        long delta = due - tick;
+        int level = 0;
+        while (level + 1 < LEVELS && delta >= (1L << ((level + 1) * bits))) {
+            level++;
+        }
+        if (level == LEVELS - 1 && delta >= (1L << (LEVELS * bits))) {
+            // Beyond the wheel's range: park it one revolution out and re-place it when it cascades
+            due = tick + (1L << (LEVELS * bits)) - 1;
+        }
+        buckets.get(level).get((int) ((due >>> (level * bits)) & mask)).add(timeout);
+    }
+
+    private void expire(Queue<Timeout<T>> bucket) {
+        int count = bucket.size();
+        for (int i = 0; i < count; i++) {
+            Timeout<T> timeout = bucket.poll();
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.dueTick > tick) {
+                place(timeout);
+            } else if (timeout.expire()) {
+                try {
+                    onExpire.accept(timeout.item);
+                } catch (RuntimeException e) {
+                    // An expiry handler failure must not stop the wheel
+                }
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final T item;
+        private final long deadlineMillis;
+        private final long dueTick;
+        private final AtomicInteger pending;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Timeout(T item, long deadlineMillis, long dueTick, AtomicInteger pending) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+            this.dueTick = dueTick;
+            this.pending = pending;
+        }
+
+        // False if the timeout already fired or was cancelled
+        public boolean cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        private boolean expire() {
+            if (state.compareAndSet(WAITING, EXPIRED)) {
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -47,6 +47,9 @@ function showInfo(message, duration) { showToast(message, 'info', duration); }
 
 let autoRefreshInterval = null;
 let autoRefreshEnabled = false;
+let liveEventsController = null;
+let liveRefreshTimer = null;
+let liveEventsLost = false;
 
 function toggleAutoRefresh() {
     const toggle = document.getElementById('auto-refresh-toggle');
@@ -64,10 +67,12 @@ function toggleAutoRefresh() {
 function startAutoRefresh() {
     stopAutoRefresh(); // Clear any existing interval
     autoRefreshInterval = setInterval(() => {
-        if (autoRefreshEnabled) {
+        // Polling is only the fallback while the live stream is down
+        if (autoRefreshEnabled && !liveEventsController) {
             refreshCurrentPage();
         }
     }, 30000); // 30 seconds
+    startLiveEvents();
 }
 
 function stopAutoRefresh() {
@@ -75,6 +80,169 @@ function stopAutoRefresh() {
         clearInterval(autoRefreshInterval);
         autoRefreshInterval = null;
     }
+    stopLiveEvents();
+}
+
+// Server-sent deltas from /admin/events. EventSource cannot send the bearer token, so the stream is read with fetch.
+async function startLiveEvents() {
+    const token = localStorage.getItem('adminToken');
+    if (!token || typeof fetch === 'undefined') return;
+    const controller = new AbortController();
+    liveEventsController = controller;
+    try {
+        const response = await fetch(`${API_BASE_URL}/admin/events`, {
+            headers: { 'Authorization': `Bearer ${token}`, 'Accept': 'text/event-stream' },
+            signal: controller.signal
+        });
+        if (!response.ok || !response.body) throw new Error(`HTTP ${response.status}`);
+        // Deltas sent while the stream was down are gone, so catch up once after a reconnect
+        if (liveEventsLost) {
+            liveEventsLost = false;
+            refreshCurrentPage();
+        }
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+                const block = buffer.slice(0, end);
+                buffer = buffer.slice(end + 2);
+                handleLiveEvent(block);
+            }
+        }
+    } catch (error) {
+        if (controller.signal.aborted) return;
+        console.warn('Live events unavailable, using polling:', error.message);
+    }
+    if (liveEventsController === controller) {
+        liveEventsController = null;
+        liveEventsLost = true;
+        // Reconnect later; polling covers the gap
+        setTimeout(() => {
+            if (autoRefreshEnabled && !liveEventsController) startLiveEvents();
+        }, 30000);
+    }
+}
+
+function stopLiveEvents() {
+    if (liveEventsController) {
+        const controller = liveEventsController;
+        liveEventsController = null;
+        controller.abort();
+    }
+    if (liveRefreshTimer) {
+        clearTimeout(liveRefreshTimer);
+        liveRefreshTimer = null;
+    }
+}
+
+function handleLiveEvent(block) {
+    let name = 'message';
+    const data = [];
+    block.split('\n').forEach(line => {
+        if (line.startsWith('event:')) name = line.slice(6).trim();
+        else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+    });
+    if (name === 'resync') {
+        // The server dropped our backlog; only a full reload is correct now
+        refreshCurrentPage();
+        return;
+    }
+    if (name !== 'deltas' || data.length === 0) return;
+    try {
+        applyLiveDeltas(JSON.parse(data.join('\n')));
+    } catch (error) {
+        console.warn('Bad live event, reloading:', error.message);
+        scheduleLiveRefresh();
+    }
+}
+
+// Patches the loaded rows and re-renders from memory; only rows we do not have yet need a reload
+function applyLiveDeltas(deltas) {
+    let bookingsChanged = false;
+    let paymentsChanged = false;
+    let flightsChanged = false;
+    // Pages that received a delta for a row they have not loaded
+    const missing = new Set();
+    deltas.forEach(delta => {
+        if (delta.type === 'booking') {
+            const index = allBookingsData.findIndex(b => b.bookingId === delta.id);
+            if (index < 0) {
+                if (!delta.deleted) missing.add('bookings');
+                return;
+            }
+            if (delta.deleted) {
+                allBookingsData.splice(index, 1);
+            } else {
+                const booking = allBookingsData[index];
+                if (delta.status) booking.bookingStatus = delta.status;
+                if (delta.paymentStatus) booking.paymentStatus = delta.paymentStatus;
+                if (delta.totalPrice != null) booking.totalAmount = delta.totalPrice;
+            }
+            bookingsChanged = true;
+        } else if (delta.type === 'payment') {
+            const payment = allPaymentsData.find(p => p.paymentId === delta.id);
+            if (!payment) {
+                missing.add('payments');
+                return;
+            }
+            if (delta.status) payment.status = delta.status;
+            if (delta.amount != null) payment.amount = delta.amount;
+            if (delta.transactionId) payment.transactionId = delta.transactionId;
+            if (delta.paymentMethod) payment.paymentMethod = delta.paymentMethod;
+            paymentsChanged = true;
+        } else if (delta.type === 'flight' && typeof flightsData !== 'undefined') {
+            const flight = flightsData.find(f => f.flightId === delta.id);
+            if (!flight) {
+                missing.add('flights');
+                return;
+            }
+            if (delta.status) flight.status = delta.status;
+            flightsChanged = true;
+        }
+    });
+
+    switch (currentPage) {
+        case 'bookings':
+            if (missing.has(currentPage)) scheduleLiveRefresh();
+            else if (bookingsChanged) {
+                updateBookingsStats(allBookingsData);
+                displayBookings();
+            }
+            break;
+        case 'payments':
+            if (missing.has(currentPage)) scheduleLiveRefresh();
+            else if (paymentsChanged) {
+                updatePaymentsStats(allPaymentsData);
+                displayPayments();
+            }
+            break;
+        case 'flights':
+            if (missing.has(currentPage)) scheduleLiveRefresh();
+            else if (flightsChanged) {
+                updateFlightsStats(flightsData);
+                applyFlightsFilters();
+                renderFlightsTable();
+            }
+            break;
+        case 'dashboard':
+            // Aggregates cannot be patched from a delta
+            if (deltas.length > 0) scheduleLiveRefresh();
+            break;
+    }
+}
+
+// New rows or dashboard totals: several deltas in a row cause one reload
+function scheduleLiveRefresh() {
+    if (liveRefreshTimer) return;
+    liveRefreshTimer = setTimeout(() => {
+        liveRefreshTimer = null;
+        if (autoRefreshEnabled) refreshCurrentPage();
+    }, 2000);
 }
 
 function refreshCurrentPage() {
@@ -1319,16 +1487,8 @@ loadDashboard = async function() {
     await originalLoadDashboard();
     // Update notification badge
     try {
-        const users = await api.getUsers();
-        let totalUnread = 0;
-        for (const user of users) {
-            try {
-                const count = await api.getUnreadCount(user.userId);
-                totalUnread += count;
-            } catch (error) {
-                console.error(`Error getting unread count for user ${user.userId}:`, error);
-            }
-        }
+        const unread = await api.getUnreadCounts();
+        const totalUnread = unread.total || 0;
         const badge = document.getElementById('notifications-badge');
         if (badge) {
             if (totalUnread > 0) {
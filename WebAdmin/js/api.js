@@ -369,6 +369,14 @@ class NotificationsAPI {
         return await apiCall(`/Notification/user/${userId}/unread-count`, { method: 'GET' });
     }
     
+    // Total and per-user unread counts in one request; omit userIds to get every user with unread notifications
+    async getUnreadCounts(userIds = null) {
+        return await apiCall('/Notification/unread-counts', {
+            method: 'POST',
+            body: JSON.stringify({ userIds })
+        });
+    }
+    
     // Get all notifications for all users (admin view)
     async getAllNotificationsForAdmin(page = 1, pageSize = 50) {
         // This requires getting all users first, then their notifications
@@ -546,6 +554,7 @@ const api = {
     getUserNotifications: (userId, page, pageSize) => new NotificationsAPI().getUserNotifications(userId, page, pageSize),
     markNotificationAsRead: (notificationId, userId) => new NotificationsAPI().markAsRead(notificationId, userId),
     getUnreadCount: (userId) => new NotificationsAPI().getUnreadCount(userId),
+    getUnreadCounts: (userIds) => new NotificationsAPI().getUnreadCounts(userIds),
     getAllNotificationsForAdmin: (page, pageSize) => new NotificationsAPI().getAllNotificationsForAdmin(page, pageSize),
     
     // Auto-Approval
@@ -1,6 +1,9 @@
 // Chat/Support JavaScript Functions
 let currentChatUserId = null;
 let chatRefreshInterval = null;
+let chatStreamController = null;
+let chatStreamRefreshTimer = null;
+let chatStreamReloadMessages = false;
 
 // Load chat conversations
 async function loadChatConversations() {
@@ -104,11 +107,13 @@ function apiCall(endpoint, options = {}) {
     
     const fullUrl = `${apiBaseUrl}${endpoint}`;
     console.log(`[Chat API] ${options.method || 'GET'} ${fullUrl}`);
+    const token = localStorage.getItem('adminToken');
     
     return fetch(fullUrl, {
         ...options,
         headers: {
             'Content-Type': 'application/json',
+            ...(token ? { 'Authorization': `Bearer ${token}` } : {}),
             ...options.headers
         },
         mode: 'cors'
@@ -397,15 +402,94 @@ function setupChatAutoRefresh() {
         clearInterval(chatRefreshInterval);
     }
     
-    // Refresh every 5 seconds
+    // Refresh every 5 seconds, but only while the push stream is down
     chatRefreshInterval = setInterval(() => {
-        if (currentPage === 'customer-support') {
+        if (currentPage === 'customer-support' && !chatStreamController) {
             if (currentChatUserId) {
                 loadMessages(currentChatUserId);
             }
             loadChatConversations();
         }
     }, 5000);
+    
+    if (!chatStreamController) {
+        startChatStream();
+    }
+}
+
+// New messages and read receipts are pushed from /Chat/stream as {type: 'chat', id: userId, seq, ...} deltas
+async function startChatStream() {
+    const token = localStorage.getItem('adminToken');
+    if (!token || typeof fetch === 'undefined') return;
+    var apiBaseUrl = (typeof window !== 'undefined' && window.API_BASE_URL) 
+        ? window.API_BASE_URL 
+        : (typeof API_BASE_URL !== 'undefined' ? API_BASE_URL : 'http://192.168.10.9:501/api');
+    const controller = new AbortController();
+    chatStreamController = controller;
+    try {
+        const response = await fetch(`${apiBaseUrl}/Chat/stream`, {
+            headers: { 'Authorization': `Bearer ${token}`, 'Accept': 'text/event-stream' },
+            signal: controller.signal
+        });
+        if (!response.ok || !response.body) throw new Error(`HTTP ${response.status}`);
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        while (true) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+                handleChatStreamEvent(buffer.slice(0, end));
+                buffer = buffer.slice(end + 2);
+            }
+        }
+    } catch (error) {
+        if (controller.signal.aborted) return;
+        console.warn('[Chat] Push stream unavailable, polling instead:', error.message);
+    }
+    if (chatStreamController === controller) {
+        chatStreamController = null;
+        setTimeout(() => {
+            if (currentPage === 'customer-support' && !chatStreamController) startChatStream();
+        }, 30000);
+    }
+}
+
+function handleChatStreamEvent(block) {
+    const name = (block.match(/^event:\s*(.*)$/m) || [])[1];
+    if (name === 'resync') {
+        scheduleChatRefresh(true);
+        return;
+    }
+    if (name !== 'deltas') return;
+    const data = block.split('\n').filter(line => line.startsWith('data:')).map(line => line.slice(5)).join('\n');
+    try {
+        const deltas = JSON.parse(data);
+        const chat = deltas.filter(d => d.type === 'chat');
+        if (chat.length > 0) {
+            scheduleChatRefresh(chat.some(d => d.id == currentChatUserId));
+        }
+    } catch (e) {
+        console.warn('[Chat] Bad push payload', e);
+    }
+}
+
+// Coalesces bursts of deltas into one reload
+function scheduleChatRefresh(reloadMessages) {
+    chatStreamReloadMessages = chatStreamReloadMessages || reloadMessages;
+    if (chatStreamRefreshTimer) return;
+    chatStreamRefreshTimer = setTimeout(() => {
+        chatStreamRefreshTimer = null;
+        const withMessages = chatStreamReloadMessages;
+        chatStreamReloadMessages = false;
+        if (currentPage !== 'customer-support') return;
+        if (withMessages && currentChatUserId) {
+            loadMessages(currentChatUserId);
+        }
+        loadChatConversations();
+    }, 300);
 }
 
 function formatTime(date) {